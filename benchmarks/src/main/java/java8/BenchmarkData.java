@@ -0,0 +1,83 @@
+package java8;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java8.collect.stream.Currency;
+import java8.collect.stream.Transaction;
+import java8.lambda.and.method.reference.Apple;
+import java8.lambda.and.method.reference.Color;
+import java8.streams.Dish;
+import java8.streams.DishType;
+
+// Seeded generators, so every run and every fork benchmarks exactly the same data.
+// The 100M sizes need a large heap: pass e.g. -jvmArgsAppend -Xmx24g to the runner.
+public final class BenchmarkData {
+
+  private static final long SEED = 42;
+  private static final String[] WORDS = {
+      "tajine", "couscous", "harira", "pastilla", "fish", "chips", "pie", "pudding",
+      "bratwurst", "schnitzel", "pretzel", "kebab", "baklava", "pide", "dolma", "lahmacun"
+  };
+
+  private BenchmarkData() {
+  }
+
+  public static List<Transaction> transactions(int size) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    Currency[] currencies = Currency.values();
+    List<Transaction> transactions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      transactions.add(new Transaction(currencies[random.nextInt(currencies.length)],
+          random.nextInt(100_000) / 100.0));
+    }
+    return transactions;
+  }
+
+  public static List<Dish> dishes(int size) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    DishType[] dishTypes = DishType.values();
+    List<Dish> dishes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+      dishes.add(new Dish(name, random.nextInt(1_200),
+          dishTypes[random.nextInt(dishTypes.length)]));
+    }
+    return dishes;
+  }
+
+  public static List<Apple> apples(int size) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    Color[] colors = Color.values();
+    List<Apple> apples = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      apples.add(new Apple(colors[random.nextInt(colors.length)], 50 + random.nextInt(150)));
+    }
+    return apples;
+  }
+
+  // Roughly one key in a hundred is present with a null price, like "hp" in MapsTest.
+  public static Map<String, Integer> inventory(int size) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    Map<String, Integer> inventory = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      inventory.put(sku(i), random.nextInt(100) == 0 ? null : random.nextInt(1_000));
+    }
+    return inventory;
+  }
+
+  public static String[] skus(int size, int distinct) {
+    SplittableRandom random = new SplittableRandom(SEED + 1);
+    String[] skus = new String[size];
+    for (int i = 0; i < size; i++) {
+      skus[i] = sku(random.nextInt(distinct));
+    }
+    return skus;
+  }
+
+  public static String sku(int index) {
+    return "sku-" + index;
+  }
+}
@@ -0,0 +1,77 @@
+package java8.collect.stream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java8.BenchmarkData;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumCollectorsBenchmark {
+
+  @Param({"1000", "1000000"})
+  private int size;
+
+  private List<Transaction> transactions;
+  private List<Dish> dishes;
+
+  @Setup
+  public void setUp() {
+    transactions = BenchmarkData.transactions(size);
+    dishes = BenchmarkData.dishes(size);
+  }
+
+  @Benchmark
+  public Map<Currency, List<Transaction>> groupingBy_transactions() {
+    return transactions.stream().collect(groupingBy(Transaction::getCurrency));
+  }
+
+  @Benchmark
+  public EnumMap<Currency, List<Transaction>> groupingByEnum_transactions() {
+    return transactions.stream()
+        .collect(EnumCollectors.groupingByEnum(Currency.class, Transaction::getCurrency));
+  }
+
+  @Benchmark
+  public Map<Currency, Long> groupingBy_counting_parallel() {
+    return transactions.parallelStream().collect(groupingBy(Transaction::getCurrency, counting()));
+  }
+
+  @Benchmark
+  public EnumMap<Currency, Long> countingByEnum_parallel() {
+    return transactions.parallelStream()
+        .collect(EnumCollectors.countingByEnum(Currency.class, Transaction::getCurrency));
+  }
+
+  @Benchmark
+  public Map<DishType, Long> groupingBy_counting_dishes() {
+    return dishes.stream().collect(groupingBy(Dish::getDishType, counting()));
+  }
+
+  @Benchmark
+  public EnumMap<DishType, Long> countingByEnum_dishes() {
+    return dishes.stream()
+        .collect(EnumCollectors.countingByEnum(DishType.class, Dish::getDishType));
+  }
+}
@@ -0,0 +1,106 @@
+package java8.collect.stream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.groupingByConcurrent;
+import static java.util.stream.Collectors.partitioningBy;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Runs the currency then isExpensive grouping inside a pool of the given parallelism, so the
+// results show how each strategy scales from 1 to N cores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionGroupingBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  private int parallelism;
+
+  @Param({"1000000"})
+  private int size;
+
+  private ForkJoinPool pool;
+  private List<Transaction> transactions;
+  private TransactionLedger ledger;
+
+  @Setup
+  public void setUp() {
+    pool = new ForkJoinPool(parallelism);
+    transactions = BenchmarkData.transactions(size);
+    ledger = TransactionLedger.of(transactions);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public Object groupingBy_list() throws Exception {
+    return pool.submit(() -> transactions.parallelStream()
+        .collect(groupingBy(Transaction::getCurrency,
+            groupingBy(Transaction::isExpensive, counting())))).get();
+  }
+
+  @Benchmark
+  public Object groupingBy_spliterator() throws Exception {
+    return pool.submit(() -> spliteratorStream()
+        .collect(groupingBy(Transaction::getCurrency,
+            groupingBy(Transaction::isExpensive, counting())))).get();
+  }
+
+  @Benchmark
+  public Object groupingByConcurrent_spliterator() throws Exception {
+    return pool.submit(() -> spliteratorStream()
+        .collect(groupingByConcurrent(Transaction::getCurrency,
+            groupingByConcurrent(Transaction::isExpensive, counting())))).get();
+  }
+
+  @Benchmark
+  public Object groupingByEnum_spliterator() throws Exception {
+    return pool.submit(() -> spliteratorStream()
+        .collect(EnumCollectors.groupingByEnum(Currency.class,
+            Transaction::getCurrency, partitioningBy(Transaction::isExpensive, counting()))))
+        .get();
+  }
+
+  @Benchmark
+  public Object groupingByEnumConcurrent_spliterator() throws Exception {
+    return pool.submit(() -> spliteratorStream()
+        .collect(EnumCollectors.groupingByEnumConcurrent(Currency.class,
+            Transaction::getCurrency, partitioningBy(Transaction::isExpensive, counting()))))
+        .get();
+  }
+
+  @Benchmark
+  public Object groupingBy_ledger() throws Exception {
+    return pool.submit(() -> ledger.stream().parallel()
+        .collect(groupingBy(Transaction::getCurrency,
+            partitioningBy(Transaction::isExpensive, counting())))).get();
+  }
+
+  private Stream<Transaction> spliteratorStream() {
+    return StreamSupport.stream(TransactionSpliterator.of(transactions), true);
+  }
+}
@@ -0,0 +1,121 @@
+package java8.collect.stream;
+
+import static java.util.stream.Collectors.averagingDouble;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.maxBy;
+import static java.util.stream.Collectors.partitioningBy;
+import static java.util.stream.Collectors.reducing;
+import static java.util.stream.Collectors.summarizingDouble;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The TransactionTest pipelines, on boxed lists and on the primitive TransactionLedger.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionPipelinesBenchmark {
+
+  @Param({"1000", "1000000", "100000000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  private List<Transaction> transactions;
+  private TransactionLedger ledger;
+
+  @Setup
+  public void setUp() {
+    transactions = BenchmarkData.transactions(size);
+    ledger = TransactionLedger.of(transactions);
+  }
+
+  @Benchmark
+  public Map<Currency, List<Transaction>> groupingByCurrency() {
+    return stream().collect(groupingBy(Transaction::getCurrency));
+  }
+
+  @Benchmark
+  public Map<Currency, Map<Boolean, List<Transaction>>> groupingByCurrencyThenExpensiveness() {
+    return stream().collect(groupingBy(Transaction::getCurrency,
+        groupingBy(Transaction::isExpensive)));
+  }
+
+  @Benchmark
+  public Map<Boolean, List<Transaction>> partitioningByExpensiveness() {
+    return stream().collect(partitioningBy(Transaction::isExpensive));
+  }
+
+  @Benchmark
+  public Map<Currency, Long> countingByCurrency() {
+    return stream().collect(groupingBy(Transaction::getCurrency, counting()));
+  }
+
+  @Benchmark
+  public Map<Currency, Optional<Transaction>> maxByCurrency() {
+    return stream().collect(groupingBy(Transaction::getCurrency,
+        maxBy(Comparator.comparing(Transaction::getAmount))));
+  }
+
+  @Benchmark
+  public Double sum_reducing_boxed() {
+    return stream().collect(reducing((double) 0, Transaction::getAmount, Double::sum));
+  }
+
+  @Benchmark
+  public double sum_mapToDouble_primitive() {
+    return stream().mapToDouble(Transaction::getAmount).sum();
+  }
+
+  @Benchmark
+  public long sum_ledger_minorUnits() {
+    return parallel ? ledger.minorUnits().parallel().sum() : ledger.sumOfMinorUnits();
+  }
+
+  @Benchmark
+  public Double averaging_boxed() {
+    return stream().collect(averagingDouble(Transaction::getAmount));
+  }
+
+  @Benchmark
+  public DoubleSummaryStatistics summarizing() {
+    return stream().collect(summarizingDouble(Transaction::getAmount));
+  }
+
+  @Benchmark
+  public String joinCurrenciesAboveAverage() {
+    double average = stream().mapToDouble(Transaction::getAmount).average().orElse(0);
+    return stream()
+        .filter(transaction -> transaction.getAmount() >= average)
+        .map(transaction -> transaction.getCurrency().toString())
+        .distinct()
+        .collect(joining());
+  }
+
+  private Stream<Transaction> stream() {
+    return parallel ? transactions.parallelStream() : transactions.stream();
+  }
+}
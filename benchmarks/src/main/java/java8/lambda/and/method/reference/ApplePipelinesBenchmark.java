@@ -0,0 +1,106 @@
+package java8.lambda.and.method.reference;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The AppleTest pipelines. Sorts work on a fresh copy, so the copy is part of every score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplePipelinesBenchmark {
+
+  @Param({"1000", "1000000", "100000000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  private static final AppleSorter COLOR_THEN_WEIGHT =
+      AppleSorter.by(AppleSorter.Attribute.COLOR, AppleSorter.Attribute.WEIGHT);
+
+  private List<Apple> apples;
+
+  @Setup
+  public void setUp() {
+    apples = BenchmarkData.apples(size);
+  }
+
+  @Benchmark
+  public List<Apple> sort_colorThenWeight_boxed() {
+    List<Apple> sorted = new ArrayList<>(apples);
+    sorted.sort(Comparator.comparing(Apple::getColor).thenComparing(Apple::getWeight));
+    return sorted;
+  }
+
+  @Benchmark
+  public List<Apple> sort_colorThenWeight_primitive() {
+    List<Apple> sorted = new ArrayList<>(apples);
+    sorted.sort(Comparator.comparing(Apple::getColor).thenComparingInt(Apple::getWeight));
+    return sorted;
+  }
+
+  @Benchmark
+  public List<Apple> sort_colorThenWeight_radix() {
+    List<Apple> sorted = new ArrayList<>(apples);
+    if (parallel) {
+      COLOR_THEN_WEIGHT.parallelSort(sorted);
+    } else {
+      COLOR_THEN_WEIGHT.sort(sorted);
+    }
+    return sorted;
+  }
+
+  @Benchmark
+  public List<Apple> sort_reverseOrder() {
+    List<Apple> sorted = new ArrayList<>(apples);
+    sorted.sort(Comparator.reverseOrder());
+    return sorted;
+  }
+
+  @Benchmark
+  public List<Apple> sorted_stream() {
+    return stream()
+        .sorted(Comparator.comparing(Apple::getColor).thenComparing(Apple::getWeight))
+        .collect(toList());
+  }
+
+  @Benchmark
+  public List<Apple> filterExpensive() {
+    return stream().filter(Apple::isExpensive).collect(toList());
+  }
+
+  @Benchmark
+  public long countHeavy() {
+    return stream().filter(Apple::isHeavy).count();
+  }
+
+  @Benchmark
+  public String colorsJoining() {
+    return stream().map(apple -> apple.getColor().toString()).collect(joining(","));
+  }
+
+  private Stream<Apple> stream() {
+    return parallel ? apples.parallelStream() : apples.stream();
+  }
+}
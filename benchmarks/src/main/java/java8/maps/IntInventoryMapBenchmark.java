@@ -0,0 +1,68 @@
+package java8.maps;
+
+import java.util.concurrent.TimeUnit;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// MapsBenchmark on an IntInventoryMap holding the same data, compare scores by method name.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntInventoryMapBenchmark {
+
+  @Param({"1000", "1000000", "10000000"})
+  private int size;
+
+  private IntInventoryMap inventory;
+  private String[] keys;
+
+  @Setup
+  public void setUp() {
+    inventory = IntInventoryMap.copyOf(BenchmarkData.inventory(size));
+    // One key in ten is unknown to the inventory.
+    keys = BenchmarkData.skus(size, size + size / 10);
+  }
+
+  @Benchmark
+  public long getOrDefault() {
+    long sum = 0;
+    for (String key : keys) {
+      sum += inventory.getOrDefault(key, 0);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public IntInventoryMap merge() {
+    for (String key : keys) {
+      inventory.mergeInt(key, 50, Integer::sum);
+    }
+    return inventory;
+  }
+
+  @Benchmark
+  public IntInventoryMap computeIfAbsent() {
+    for (String key : keys) {
+      inventory.computeIfAbsent(key, String::length);
+    }
+    return inventory;
+  }
+
+  @Benchmark
+  public int sumOfKnownPrices() {
+    return inventory.values().sum();
+  }
+}
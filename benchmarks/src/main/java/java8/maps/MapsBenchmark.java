@@ -0,0 +1,77 @@
+package java8.maps;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The MapsTest operations over `size` SKUs, one operation per looked-up key. The map is kept
+// across invocations, so merge and computeIfAbsent measure their steady state.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapsBenchmark {
+
+  @Param({"1000", "1000000", "10000000"})
+  private int size;
+
+  private Map<String, Integer> inventory;
+  private String[] keys;
+
+  @Setup
+  public void setUp() {
+    inventory = BenchmarkData.inventory(size);
+    // One key in ten is unknown to the inventory.
+    keys = BenchmarkData.skus(size, size + size / 10);
+  }
+
+  @Benchmark
+  public long getOrDefault() {
+    long sum = 0;
+    for (String key : keys) {
+      Integer price = inventory.getOrDefault(key, 0);
+      if (price != null) {
+        sum += price;
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public Map<String, Integer> merge() {
+    for (String key : keys) {
+      inventory.merge(key, 50, Integer::sum);
+    }
+    return inventory;
+  }
+
+  @Benchmark
+  public Map<String, Integer> computeIfAbsent() {
+    for (String key : keys) {
+      inventory.computeIfAbsent(key, k -> k.length());
+    }
+    return inventory;
+  }
+
+  @Benchmark
+  public int sumOfKnownPrices() {
+    return inventory.values().stream()
+        .filter(Objects::nonNull)
+        .mapToInt(Integer::intValue)
+        .sum();
+  }
+}
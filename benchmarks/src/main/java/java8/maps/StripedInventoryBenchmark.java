@@ -0,0 +1,65 @@
+package java8.maps;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Writers applying +1 deltas to `keys` shared SKUs, a single key being the hot "lenovo" case.
+// Run with -t to change the writer count, contention only shows with several cores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class StripedInventoryBenchmark {
+
+  @Param({"1", "16", "100000"})
+  private int keys;
+
+  private String[] skus;
+  private ConcurrentHashMap<String, Integer> concurrentHashMap;
+  private StripedInventory stripedInventory;
+
+  @Setup
+  public void setUp() {
+    skus = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      skus[i] = BenchmarkData.sku(i);
+    }
+    concurrentHashMap = new ConcurrentHashMap<>();
+    stripedInventory = new StripedInventory();
+    for (String sku : skus) {
+      concurrentHashMap.put(sku, 0);
+      stripedInventory.add(sku, 0);
+    }
+  }
+
+  @Benchmark
+  public void concurrentHashMap_merge() {
+    concurrentHashMap.merge(randomSku(), 1, Integer::sum);
+  }
+
+  @Benchmark
+  public void stripedInventory_add() {
+    stripedInventory.add(randomSku(), 1);
+  }
+
+  private String randomSku() {
+    return skus[ThreadLocalRandom.current().nextInt(skus.length)];
+  }
+}
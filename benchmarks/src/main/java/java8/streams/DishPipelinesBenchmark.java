@@ -0,0 +1,108 @@
+package java8.streams;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java8.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The DishTest pipelines: filtering, grouping, flatMap, matching and boxed vs primitive sums.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DishPipelinesBenchmark {
+
+  @Param({"1000", "1000000", "100000000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  private List<Dish> dishes;
+  private List<Integer> pairsLeft;
+  private List<Integer> pairsRight;
+
+  @Setup
+  public void setUp() {
+    dishes = BenchmarkData.dishes(size);
+    int side = (int) Math.sqrt(size);
+    pairsLeft = IntStream.range(0, side).boxed().collect(toList());
+    pairsRight = IntStream.range(0, side).boxed().collect(toList());
+  }
+
+  @Benchmark
+  public List<String> lowCaloriesNames() {
+    return stream().filter(Dish::isLowCalories).map(Dish::getName).collect(toList());
+  }
+
+  @Benchmark
+  public Map<DishType, List<Dish>> groupingByType() {
+    return stream().collect(groupingBy(Dish::getDishType));
+  }
+
+  @Benchmark
+  public List<String> flatMap_distinctLetters() {
+    return stream()
+        .map(dish -> dish.getName().split(""))
+        .flatMap(Arrays::stream)
+        .distinct()
+        .collect(toList());
+  }
+
+  @Benchmark
+  public List<int[]> flatMap_pairs() {
+    Stream<Integer> left = parallel ? pairsLeft.parallelStream() : pairsLeft.stream();
+    return left
+        .flatMap(a -> pairsRight.stream().map(b -> new int[]{a, b}))
+        .collect(toList());
+  }
+
+  @Benchmark
+  public boolean anyMatchMoroccan() {
+    return stream().anyMatch(dish -> dish.isOfType(DishType.MOROCCAN));
+  }
+
+  @Benchmark
+  public boolean allMatchHealthy() {
+    return stream().allMatch(Dish::isHealthy);
+  }
+
+  @Benchmark
+  public Integer sum_reduce_boxed() {
+    return stream().map(Dish::getCalories).reduce(0, Integer::sum);
+  }
+
+  @Benchmark
+  public int sum_mapToInt_primitive() {
+    return stream().mapToInt(Dish::getCalories).sum();
+  }
+
+  @Benchmark
+  public OptionalInt maxCalories() {
+    return stream().mapToInt(Dish::getCalories).max();
+  }
+
+  private Stream<Dish> stream() {
+    return parallel ? dishes.parallelStream() : dishes.stream();
+  }
+}
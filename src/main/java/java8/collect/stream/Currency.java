@@ -1,5 +1,40 @@
 package java8.collect.stream;
 
 public enum Currency {
-  MAD, USD, EUR
+  MAD(2), USD(2), EUR(2);
+
+  private final int fractionDigits;
+  private final long minorUnitsPerUnit;
+
+  Currency(int fractionDigits) {
+    this.fractionDigits = fractionDigits;
+    long minorUnitsPerUnit = 1;
+    for (int i = 0; i < fractionDigits; i++) {
+      minorUnitsPerUnit *= 10;
+    }
+    this.minorUnitsPerUnit = minorUnitsPerUnit;
+  }
+
+  public int getFractionDigits() {
+    return fractionDigits;
+  }
+
+  // Only amounts that are a whole number of minor units, to the precision of a double, convert.
+  // Anything else, including NaN and infinities, would otherwise be silently rounded.
+  public long toMinorUnits(double amount) {
+    if (!isWholeMinorUnits(amount)) {
+      throw new IllegalArgumentException(
+          "Amount " + amount + " is not a whole number of minor units of " + this);
+    }
+    return Math.round(amount * minorUnitsPerUnit);
+  }
+
+  public boolean isWholeMinorUnits(double amount) {
+    double scaled = amount * minorUnitsPerUnit;
+    return Math.abs(scaled) < 0x1p53 && toAmount(Math.round(scaled)) == amount;
+  }
+
+  public double toAmount(long minorUnits) {
+    return (double) minorUnits / minorUnitsPerUnit;
+  }
 }
@@ -0,0 +1,152 @@
+package java8.collect.stream;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.DoubleStream;
+
+// rates[from.ordinal()][to.ordinal()] is the amount of "to" bought by one unit of "from".
+// Updates build a new matrix and swap it in, so every bulk conversion sees a single set of rates.
+public class CurrencyConverter {
+
+  private static final Currency[] CURRENCIES = Currency.values();
+
+  private final AtomicReference<double[][]> rates;
+
+  public CurrencyConverter() {
+    double[][] identity = new double[CURRENCIES.length][CURRENCIES.length];
+    for (int i = 0; i < identity.length; i++) {
+      Arrays.fill(identity[i], Double.NaN);
+      identity[i][i] = 1;
+    }
+    this.rates = new AtomicReference<>(identity);
+  }
+
+  // Off-diagonal cells left at 0 or NaN are missing rates, any other rate must be positive and
+  // finite like in setRate.
+  public void setRates(double[][] rates) {
+    if (rates.length != CURRENCIES.length) {
+      throw new IllegalArgumentException("Expected " + CURRENCIES.length + " rows of rates");
+    }
+    double[][] copy = new double[CURRENCIES.length][];
+    for (int i = 0; i < copy.length; i++) {
+      if (rates[i].length != CURRENCIES.length) {
+        throw new IllegalArgumentException(
+            "Expected " + CURRENCIES.length + " rates for " + CURRENCIES[i]);
+      }
+      copy[i] = new double[CURRENCIES.length];
+      for (int j = 0; j < copy[i].length; j++) {
+        double rate = rates[i][j];
+        if (i == j) {
+          copy[i][j] = 1;
+        } else if (rate == 0 || Double.isNaN(rate)) {
+          copy[i][j] = Double.NaN;
+        } else {
+          copy[i][j] = checkRate(CURRENCIES[i], CURRENCIES[j], rate);
+        }
+      }
+    }
+    this.rates.set(copy);
+  }
+
+  // Also stores the inverse rate, so conversions work in both directions. A currency converts
+  // to itself at 1, any other rate is rejected.
+  public void setRate(Currency from, Currency to, double rate) {
+    checkRate(from, to, rate);
+    if (from == to && rate != 1) {
+      throw new IllegalArgumentException(
+          "Invalid rate from " + from + " to " + to + ": " + rate);
+    }
+    double[][] current;
+    double[][] updated;
+    do {
+      current = rates.get();
+      updated = new double[current.length][];
+      for (int i = 0; i < current.length; i++) {
+        updated[i] = current[i].clone();
+      }
+      if (from != to) {
+        updated[from.ordinal()][to.ordinal()] = rate;
+        updated[to.ordinal()][from.ordinal()] = 1 / rate;
+      }
+    } while (!rates.compareAndSet(current, updated));
+  }
+
+  public double getRate(Currency from, Currency to) {
+    return rate(rates.get(), from.ordinal(), to.ordinal());
+  }
+
+  public double convert(double amount, Currency from, Currency to) {
+    return amount * getRate(from, to);
+  }
+
+  public Transaction convert(Transaction transaction, Currency to) {
+    return new Transaction(to, convert(transaction.getAmount(), transaction.getCurrency(), to));
+  }
+
+  public DoubleStream convert(DoubleStream amounts, Currency from, Currency to) {
+    double rate = getRate(from, to);
+    return amounts.map(amount -> amount * rate);
+  }
+
+  public double[] convert(TransactionLedger ledger, Currency to) {
+    double[] factors = factorsTo(to);
+    double[] converted = new double[ledger.size()];
+    for (int i = 0; i < converted.length; i++) {
+      Currency from = ledger.getCurrency(i);
+      double factor = factors[from.ordinal()];
+      if (Double.isNaN(factor)) {
+        throw new IllegalStateException("No rate from " + from + " to " + to);
+      }
+      converted[i] = ledger.getMinorUnits(i) * factor;
+    }
+    return converted;
+  }
+
+  // Sums minor units per currency in one pass over the ledger, then applies each rate once.
+  // Every currency present needs a rate, even when its transactions cancel out.
+  public double total(TransactionLedger ledger, Currency to) {
+    double[][] rates = this.rates.get();
+    long[] sums = new long[CURRENCIES.length];
+    boolean[] present = new boolean[CURRENCIES.length];
+    for (int i = 0; i < ledger.size(); i++) {
+      int ordinal = ledger.getCurrency(i).ordinal();
+      sums[ordinal] = Math.addExact(sums[ordinal], ledger.getMinorUnits(i));
+      present[ordinal] = true;
+    }
+    double total = 0;
+    for (int i = 0; i < sums.length; i++) {
+      if (present[i]) {
+        total += CURRENCIES[i].toAmount(sums[i]) * rate(rates, i, to.ordinal());
+      }
+    }
+    return total;
+  }
+
+  // One multiplier per source currency, turning minor units straight into amounts of "to".
+  private double[] factorsTo(Currency to) {
+    double[][] rates = this.rates.get();
+    double[] factors = new double[CURRENCIES.length];
+    for (int i = 0; i < factors.length; i++) {
+      double rate = rates[i][to.ordinal()];
+      factors[i] = Double.isNaN(rate) ? Double.NaN : CURRENCIES[i].toAmount(1) * rate;
+    }
+    return factors;
+  }
+
+  private static double checkRate(Currency from, Currency to, double rate) {
+    if (!(rate > 0) || Double.isInfinite(rate)) {
+      throw new IllegalArgumentException(
+          "Invalid rate from " + from + " to " + to + ": " + rate);
+    }
+    return rate;
+  }
+
+  private static double rate(double[][] rates, int from, int to) {
+    double rate = rates[from][to];
+    if (Double.isNaN(rate)) {
+      throw new IllegalStateException(
+          "No rate from " + CURRENCIES[from] + " to " + CURRENCIES[to]);
+    }
+    return rate;
+  }
+}
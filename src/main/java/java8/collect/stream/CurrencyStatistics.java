@@ -0,0 +1,108 @@
+package java8.collect.stream;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+// Each currency has a row of cells like a LongAdder, each cell owning a DoubleSummaryStatistics
+// that is updated in place under a per-cell CAS flag, so accepting allocates nothing. A writer
+// never waits on a particular busy cell: it moves on to the next stripe and only yields after a
+// full lap of busy cells. Rows have at least one stripe per processor, so that only happens when
+// the owners were preempted. Java 8 has no way to build a DoubleSummaryStatistics from a count,
+// sum, min and max, which is why the cells keep whole statistics instead of separate adders.
+public class CurrencyStatistics implements Consumer<Transaction> {
+
+  private static final Currency[] CURRENCIES = Currency.values();
+  private static final int MIN_STRIPES = Runtime.getRuntime().availableProcessors();
+
+  private final Cell[][] cells;
+  private final int mask;
+
+  public CurrencyStatistics() {
+    this(MIN_STRIPES * 2);
+  }
+
+  public CurrencyStatistics(int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("Stripes must be positive: " + stripes);
+    }
+    int size = 1;
+    while (size < Math.max(stripes, MIN_STRIPES)) {
+      size <<= 1;
+    }
+    this.mask = size - 1;
+    this.cells = new Cell[CURRENCIES.length][size];
+    for (Cell[] row : cells) {
+      for (int i = 0; i < size; i++) {
+        row[i] = new Cell();
+      }
+    }
+  }
+
+  @Override
+  public void accept(Transaction transaction) {
+    accept(transaction.getCurrency(), transaction.getAmount());
+  }
+
+  public void accept(Currency currency, double amount) {
+    Cell[] row = cells[currency.ordinal()];
+    int index = probe();
+    for (int attempts = 1; !row[index].tryAccept(amount); attempts++) {
+      index = (index + 1) & mask;
+      if ((attempts & mask) == 0) {
+        Thread.yield();
+      }
+    }
+  }
+
+  // Every cell is copied while no writer holds it, so each transaction is either fully counted
+  // or not at all.
+  public DoubleSummaryStatistics snapshot(Currency currency) {
+    DoubleSummaryStatistics snapshot = new DoubleSummaryStatistics();
+    for (Cell cell : cells[currency.ordinal()]) {
+      cell.copyInto(snapshot);
+    }
+    return snapshot;
+  }
+
+  public EnumMap<Currency, DoubleSummaryStatistics> snapshot() {
+    EnumMap<Currency, DoubleSummaryStatistics> snapshots = new EnumMap<>(Currency.class);
+    for (Currency currency : CURRENCIES) {
+      snapshots.put(currency, snapshot(currency));
+    }
+    return snapshots;
+  }
+
+  private int probe() {
+    long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return (int) (id ^ (id >>> 32)) & mask;
+  }
+
+  private static final class Cell {
+
+    private static final AtomicIntegerFieldUpdater<Cell> BUSY =
+        AtomicIntegerFieldUpdater.newUpdater(Cell.class, "busy");
+
+    private final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+    private volatile int busy;
+
+    private boolean tryAccept(double amount) {
+      if (busy != 0 || !BUSY.compareAndSet(this, 0, 1)) {
+        return false;
+      }
+      statistics.accept(amount);
+      busy = 0;
+      return true;
+    }
+
+    // A reader only waits for the single accept in progress on this cell.
+    private void copyInto(DoubleSummaryStatistics snapshot) {
+      while (!BUSY.compareAndSet(this, 0, 1)) {
+        Thread.yield();
+      }
+      snapshot.combine(statistics);
+      busy = 0;
+    }
+  }
+}
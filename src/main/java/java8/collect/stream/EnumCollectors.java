@@ -0,0 +1,308 @@
+package java8.collect.stream;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collector.Characteristics;
+import java.util.stream.Collectors;
+
+public final class EnumCollectors {
+
+  // A power of two with at least two stripes per processor.
+  private static final int STRIPES =
+      Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+
+  private EnumCollectors() {
+  }
+
+  public static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, List<T>>> groupingByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier) {
+    return groupingByEnum(type, classifier, Collectors.toList());
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T, E extends Enum<E>, A, D> Collector<T, ?, EnumMap<E, D>> groupingByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier,
+      Collector<? super T, A, D> downstream) {
+    E[] keys = type.getEnumConstants();
+    Supplier<A> downstreamSupplier = downstream.supplier();
+    BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+    BinaryOperator<A> downstreamCombiner = downstream.combiner();
+    Function<A, D> downstreamFinisher = downstream.finisher();
+    return Collector.<T, Object[], EnumMap<E, D>>of(
+        () -> new Object[keys.length],
+        (containers, element) -> {
+          int ordinal = ordinal(classifier, element);
+          Object container = containers[ordinal];
+          if (container == null) {
+            container = downstreamSupplier.get();
+            containers[ordinal] = container;
+          }
+          ((BiConsumer<A, T>) downstreamAccumulator).accept((A) container, element);
+        },
+        (left, right) -> {
+          for (int i = 0; i < left.length; i++) {
+            if (left[i] == null) {
+              left[i] = right[i];
+            } else if (right[i] != null) {
+              left[i] = downstreamCombiner.apply((A) left[i], (A) right[i]);
+            }
+          }
+          return left;
+        },
+        containers -> {
+          EnumMap<E, D> result = new EnumMap<>(type);
+          for (int i = 0; i < containers.length; i++) {
+            if (containers[i] != null) {
+              result.put(keys[i], downstreamFinisher.apply((A) containers[i]));
+            }
+          }
+          return result;
+        });
+  }
+
+  // A single shared container for all threads, so a parallel stream never merges partial
+  // results while it runs. Each thread fills the buckets of its own stripe, picked from its id,
+  // so the bucket monitors are almost never contended. The stripes of a key are folded with the
+  // downstream combiner once, in the finisher. Every element still pays for a monitor, so with a
+  // cheap downstream such as counting() groupingByEnum is faster, its merges only cost
+  // O(#constants). This pays off when merging downstream containers is what dominates.
+  @SuppressWarnings("unchecked")
+  public static <T, E extends Enum<E>, A, D> Collector<T, ?, EnumMap<E, D>>
+      groupingByEnumConcurrent(Class<E> type, Function<? super T, ? extends E> classifier,
+      Collector<? super T, A, D> downstream) {
+    E[] keys = type.getEnumConstants();
+    Supplier<A> downstreamSupplier = downstream.supplier();
+    BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+    BinaryOperator<A> downstreamCombiner = downstream.combiner();
+    Function<A, D> downstreamFinisher = downstream.finisher();
+    int stripes = STRIPES;
+    return Collector.<T, AtomicReferenceArray<Object>, EnumMap<E, D>>of(
+        () -> new AtomicReferenceArray<>(stripes * keys.length),
+        (containers, element) -> {
+          int slot = stripe() * keys.length + ordinal(classifier, element);
+          Object container = containers.get(slot);
+          if (container == null) {
+            containers.compareAndSet(slot, null, downstreamSupplier.get());
+            container = containers.get(slot);
+          }
+          synchronized (container) {
+            ((BiConsumer<A, T>) downstreamAccumulator).accept((A) container, element);
+          }
+        },
+        (left, right) -> {
+          for (int i = 0; i < left.length(); i++) {
+            if (left.get(i) == null) {
+              left.set(i, right.get(i));
+            } else if (right.get(i) != null) {
+              left.set(i, downstreamCombiner.apply((A) left.get(i), (A) right.get(i)));
+            }
+          }
+          return left;
+        },
+        containers -> {
+          EnumMap<E, D> result = new EnumMap<>(type);
+          for (int i = 0; i < keys.length; i++) {
+            A merged = null;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+              A container = (A) containers.get(stripe * keys.length + i);
+              if (container != null) {
+                merged = merged == null ? container : downstreamCombiner.apply(merged, container);
+              }
+            }
+            if (merged != null) {
+              result.put(keys[i], downstreamFinisher.apply(merged));
+            }
+          }
+          return result;
+        },
+        Characteristics.CONCURRENT, Characteristics.UNORDERED);
+  }
+
+  public static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, Long>> countingByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier) {
+    E[] keys = type.getEnumConstants();
+    return Collector.<T, long[], EnumMap<E, Long>>of(
+        () -> new long[keys.length],
+        (counts, element) -> counts[ordinal(classifier, element)]++,
+        (left, right) -> {
+          for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+          }
+          return left;
+        },
+        counts -> {
+          EnumMap<E, Long> result = new EnumMap<>(type);
+          for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+              result.put(keys[i], counts[i]);
+            }
+          }
+          return result;
+        });
+  }
+
+  // Sums with the same Kahan compensation as Collectors.summingDouble, so the results match
+  // groupingBy(classifier, summingDouble(mapper)) and do not drift with the parallel split.
+  public static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, Double>> summingByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier,
+      ToDoubleFunction<? super T> mapper) {
+    E[] keys = type.getEnumConstants();
+    return Collector.<T, DoubleBuckets, EnumMap<E, Double>>of(
+        () -> new DoubleBuckets(keys.length),
+        (buckets, element) -> buckets.add(ordinal(classifier, element), mapper.applyAsDouble(element)),
+        DoubleBuckets::combine,
+        buckets -> {
+          EnumMap<E, Double> result = new EnumMap<>(type);
+          for (int i = 0; i < keys.length; i++) {
+            if (buckets.counts[i] > 0) {
+              result.put(keys[i], buckets.sum(i));
+            }
+          }
+          return result;
+        });
+  }
+
+  public static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, Integer>> summingIntByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier,
+      ToIntFunction<? super T> mapper) {
+    E[] keys = type.getEnumConstants();
+    return Collector.<T, LongBuckets, EnumMap<E, Integer>>of(
+        () -> new LongBuckets(keys.length),
+        (buckets, element) -> buckets.add(ordinal(classifier, element), mapper.applyAsInt(element)),
+        LongBuckets::combine,
+        buckets -> {
+          EnumMap<E, Integer> result = new EnumMap<>(type);
+          for (int i = 0; i < keys.length; i++) {
+            if (buckets.counts[i] > 0) {
+              result.put(keys[i], (int) buckets.sums[i]);
+            }
+          }
+          return result;
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T, E extends Enum<E>> Collector<T, ?, EnumMap<E, Optional<T>>> maxByEnum(
+      Class<E> type, Function<? super T, ? extends E> classifier,
+      Comparator<? super T> comparator) {
+    E[] keys = type.getEnumConstants();
+    return Collector.<T, Object[], EnumMap<E, Optional<T>>>of(
+        () -> new Object[keys.length],
+        (maxima, element) -> {
+          int ordinal = ordinal(classifier, element);
+          if (maxima[ordinal] == null || comparator.compare(element, (T) maxima[ordinal]) > 0) {
+            maxima[ordinal] = Objects.requireNonNull(element);
+          }
+        },
+        (left, right) -> {
+          for (int i = 0; i < left.length; i++) {
+            if (left[i] == null
+                || right[i] != null && comparator.compare((T) right[i], (T) left[i]) > 0) {
+              left[i] = right[i];
+            }
+          }
+          return left;
+        },
+        maxima -> {
+          EnumMap<E, Optional<T>> result = new EnumMap<>(type);
+          for (int i = 0; i < maxima.length; i++) {
+            if (maxima[i] != null) {
+              result.put(keys[i], Optional.of((T) maxima[i]));
+            }
+          }
+          return result;
+        });
+  }
+
+  private static int stripe() {
+    long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return (int) (id >>> 32) & (STRIPES - 1);
+  }
+
+  private static <T, E extends Enum<E>> int ordinal(
+      Function<? super T, ? extends E> classifier, T element) {
+    return Objects.requireNonNull(classifier.apply(element), "element cannot be mapped to a null key")
+        .ordinal();
+  }
+
+  private static final class DoubleBuckets {
+
+    private final double[] sums;
+    private final double[] compensations;
+    private final double[] simpleSums;
+    private final long[] counts;
+
+    private DoubleBuckets(int size) {
+      this.sums = new double[size];
+      this.compensations = new double[size];
+      this.simpleSums = new double[size];
+      this.counts = new long[size];
+    }
+
+    private void add(int ordinal, double value) {
+      addWithCompensation(ordinal, value);
+      simpleSums[ordinal] += value;
+      counts[ordinal]++;
+    }
+
+    private DoubleBuckets combine(DoubleBuckets other) {
+      for (int i = 0; i < sums.length; i++) {
+        addWithCompensation(i, other.sums[i]);
+        addWithCompensation(i, -other.compensations[i]);
+        simpleSums[i] += other.simpleSums[i];
+        counts[i] += other.counts[i];
+      }
+      return this;
+    }
+
+    // The simple sum is kept only to report an infinite total the compensation turned into NaN.
+    private double sum(int ordinal) {
+      double sum = sums[ordinal] - compensations[ordinal];
+      return Double.isNaN(sum) && Double.isInfinite(simpleSums[ordinal])
+          ? simpleSums[ordinal]
+          : sum;
+    }
+
+    private void addWithCompensation(int ordinal, double value) {
+      double corrected = value - compensations[ordinal];
+      double sum = sums[ordinal] + corrected;
+      compensations[ordinal] = (sum - sums[ordinal]) - corrected;
+      sums[ordinal] = sum;
+    }
+  }
+
+  private static final class LongBuckets {
+
+    private final long[] sums;
+    private final long[] counts;
+
+    private LongBuckets(int size) {
+      this.sums = new long[size];
+      this.counts = new long[size];
+    }
+
+    private void add(int ordinal, long value) {
+      sums[ordinal] += value;
+      counts[ordinal]++;
+    }
+
+    private LongBuckets combine(LongBuckets other) {
+      for (int i = 0; i < sums.length; i++) {
+        sums[i] += other.sums[i];
+        counts[i] += other.counts[i];
+      }
+      return this;
+    }
+  }
+}
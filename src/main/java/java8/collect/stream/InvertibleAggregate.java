@@ -0,0 +1,102 @@
+package java8.collect.stream;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+// An aggregate that can take an element back out, so a MaterializedGrouping can keep it up to date
+// in O(1). Values must be immutable, they are handed to readers as they are.
+public interface InvertibleAggregate<T, A> {
+
+  A empty();
+
+  A add(A aggregate, T element);
+
+  // Returns null when the element cannot be taken out incrementally, e.g. the current minimum,
+  // the grouping then rebuilds the aggregate from the remaining members of the group.
+  A remove(A aggregate, T element);
+
+  static <T> InvertibleAggregate<T, Long> counting() {
+    return new InvertibleAggregate<T, Long>() {
+      @Override
+      public Long empty() {
+        return 0L;
+      }
+
+      @Override
+      public Long add(Long count, T element) {
+        return count + 1;
+      }
+
+      @Override
+      public Long remove(Long count, T element) {
+        return count - 1;
+      }
+    };
+  }
+
+  static <T> InvertibleAggregate<T, Long> summingInt(ToIntFunction<? super T> mapper) {
+    return new InvertibleAggregate<T, Long>() {
+      @Override
+      public Long empty() {
+        return 0L;
+      }
+
+      @Override
+      public Long add(Long sum, T element) {
+        return sum + mapper.applyAsInt(element);
+      }
+
+      @Override
+      public Long remove(Long sum, T element) {
+        return sum - mapper.applyAsInt(element);
+      }
+    };
+  }
+
+  // Subtracting doubles drifts, use summingInt or minor units where the sum must stay exact.
+  static <T> InvertibleAggregate<T, Double> summingDouble(ToDoubleFunction<? super T> mapper) {
+    return new InvertibleAggregate<T, Double>() {
+      @Override
+      public Double empty() {
+        return 0.0;
+      }
+
+      @Override
+      public Double add(Double sum, T element) {
+        return sum + mapper.applyAsDouble(element);
+      }
+
+      @Override
+      public Double remove(Double sum, T element) {
+        return sum - mapper.applyAsDouble(element);
+      }
+    };
+  }
+
+  static <T> InvertibleAggregate<T, Optional<T>> minBy(Comparator<? super T> comparator) {
+    return new InvertibleAggregate<T, Optional<T>>() {
+      @Override
+      public Optional<T> empty() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Optional<T> add(Optional<T> min, T element) {
+        return min.isPresent() && comparator.compare(min.get(), element) <= 0
+            ? min
+            : Optional.of(element);
+      }
+
+      @Override
+      public Optional<T> remove(Optional<T> min, T element) {
+        return min.isPresent() && comparator.compare(min.get(), element) < 0 ? min : null;
+      }
+    };
+  }
+
+  static <T> InvertibleAggregate<T, Optional<T>> maxBy(Comparator<? super T> comparator) {
+    return minBy(comparator.reversed());
+  }
+}
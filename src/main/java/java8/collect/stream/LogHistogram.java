@@ -0,0 +1,171 @@
+package java8.collect.stream;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collector.Characteristics;
+
+// Bucket j counts the magnitudes in (gamma^(j-1), gamma^j] with gamma = (1 + a) / (1 - a), so
+// reporting 2 * gamma^j / (1 + gamma) for any of them is off by at most a relative error of a.
+// Magnitudes below MIN_INDEXABLE count as zero, those above MAX_INDEXABLE share the top bucket.
+public class LogHistogram implements DoubleConsumer {
+
+  public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+  private static final double MIN_INDEXABLE = 1e-9;
+  private static final double MAX_INDEXABLE = 1e12;
+
+  private final double relativeAccuracy;
+  private final double gamma;
+  private final double inverseLogGamma;
+  private final int indexOffset;
+  private final long[] positive;
+  private long[] negative;
+  private long zeroCount;
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public LogHistogram() {
+    this(DEFAULT_RELATIVE_ACCURACY);
+  }
+
+  public LogHistogram(double relativeAccuracy) {
+    if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+      throw new IllegalArgumentException(
+          "Relative accuracy must be in (0, 1): " + relativeAccuracy);
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.inverseLogGamma = 1 / Math.log(gamma);
+    this.indexOffset = (int) Math.ceil(Math.log(MIN_INDEXABLE) * inverseLogGamma);
+    this.positive = new long[bucket(MAX_INDEXABLE) + 1];
+  }
+
+  public static <T> Collector<T, ?, LogHistogram> histogram(ToDoubleFunction<? super T> mapper) {
+    return histogram(mapper, DEFAULT_RELATIVE_ACCURACY);
+  }
+
+  public static <T> Collector<T, ?, LogHistogram> histogram(ToDoubleFunction<? super T> mapper,
+      double relativeAccuracy) {
+    return Collector.of(
+        () -> new LogHistogram(relativeAccuracy),
+        (histogram, element) -> histogram.accept(mapper.applyAsDouble(element)),
+        LogHistogram::combine,
+        Characteristics.IDENTITY_FINISH);
+  }
+
+  @Override
+  public void accept(double value) {
+    if (Double.isNaN(value)) {
+      throw new IllegalArgumentException("Cannot record NaN");
+    }
+    double magnitude = Math.abs(value);
+    if (magnitude < MIN_INDEXABLE) {
+      zeroCount++;
+    } else if (value > 0) {
+      positive[bucket(magnitude)]++;
+    } else {
+      if (negative == null) {
+        negative = new long[positive.length];
+      }
+      negative[bucket(magnitude)]++;
+    }
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  public LogHistogram combine(LogHistogram other) {
+    if (other.relativeAccuracy != relativeAccuracy) {
+      throw new IllegalArgumentException("Cannot combine histograms of different accuracies");
+    }
+    for (int i = 0; i < positive.length; i++) {
+      positive[i] += other.positive[i];
+    }
+    if (other.negative != null) {
+      if (negative == null) {
+        negative = new long[positive.length];
+      }
+      for (int i = 0; i < negative.length; i++) {
+        negative[i] += other.negative[i];
+      }
+    }
+    zeroCount += other.zeroCount;
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    return this;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  public double getRelativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  public double getPercentile(double percentile) {
+    return getValueAtQuantile(percentile / 100);
+  }
+
+  // Estimates the value of rank floor(quantile * (count - 1)) in sorted order, the lowest and
+  // highest ranks being exact. Returns NaN when empty.
+  public double getValueAtQuantile(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = (long) (quantile * (count - 1));
+    if (rank == 0) {
+      return min;
+    }
+    if (rank == count - 1) {
+      return max;
+    }
+    long seen = 0;
+    if (negative != null) {
+      for (int i = negative.length - 1; i >= 0; i--) {
+        seen += negative[i];
+        if (seen > rank) {
+          return clamp(-value(i));
+        }
+      }
+    }
+    seen += zeroCount;
+    if (seen > rank) {
+      return clamp(0);
+    }
+    for (int i = 0; i < positive.length; i++) {
+      seen += positive[i];
+      if (seen > rank) {
+        return clamp(value(i));
+      }
+    }
+    return max;
+  }
+
+  private int bucket(double magnitude) {
+    int index = (int) Math.ceil(Math.log(Math.min(magnitude, MAX_INDEXABLE)) * inverseLogGamma);
+    return Math.max(0, index - indexOffset);
+  }
+
+  private double value(int bucket) {
+    return 2 * Math.pow(gamma, bucket + indexOffset) / (1 + gamma);
+  }
+
+  private double clamp(double value) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
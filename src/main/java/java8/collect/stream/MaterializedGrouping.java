@@ -0,0 +1,351 @@
+package java8.collect.stream;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Keeps groupingBy(classifier, aggregate) up to date as elements come and go, instead of
+// recomputing it on every read. Writers are serialized: each one updates its group, falling back
+// to a rebuild from the group when the aggregate cannot be inverted, then publishes a new
+// immutable snapshot with that group's value swapped in. Snapshots are persistent hash tries, so
+// publishing copies one path of at most seven small nodes whatever the number of groups. Reads
+// are a single volatile read and never wait on writers, addAll publishes once per batch.
+public class MaterializedGrouping<K, T, A> {
+
+  private final Function<? super T, ? extends K> classifier;
+  private final InvertibleAggregate<? super T, A> aggregate;
+  private final Map<K, Group> groups = new HashMap<>();
+  private int size;
+  private volatile TrieMap<K, A> snapshot = TrieMap.empty();
+
+  public MaterializedGrouping(Function<? super T, ? extends K> classifier,
+      InvertibleAggregate<? super T, A> aggregate) {
+    this.classifier = Objects.requireNonNull(classifier);
+    this.aggregate = Objects.requireNonNull(aggregate);
+  }
+
+  public synchronized void add(T element) {
+    publish(addElement(element));
+  }
+
+  public synchronized void addAll(Collection<? extends T> elements) {
+    Set<K> touched = new HashSet<>();
+    for (T element : elements) {
+      touched.add(addElement(element));
+    }
+    TrieMap<K, A> values = snapshot;
+    for (K key : touched) {
+      values = values.with(key, groups.get(key).value);
+    }
+    snapshot = values;
+  }
+
+  // Returns false when the element is not in the grouping, elements are matched with equals.
+  public synchronized boolean remove(T element) {
+    K key = classifier.apply(element);
+    Group group = groups.get(key);
+    if (group == null) {
+      return false;
+    }
+    Integer occurrences = group.members.get(element);
+    if (occurrences == null) {
+      return false;
+    }
+    if (occurrences == 1) {
+      group.members.remove(element);
+    } else {
+      group.members.put(element, occurrences - 1);
+    }
+    size--;
+    if (group.members.isEmpty()) {
+      groups.remove(key);
+    } else {
+      A value = aggregate.remove(group.value, element);
+      group.value = value != null ? value : group.rebuild();
+    }
+    publish(key);
+    return true;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  // The aggregate of a key, or the empty aggregate when no element maps to it.
+  public A get(K key) {
+    A value = snapshot().get(key);
+    return value != null ? value : aggregate.empty();
+  }
+
+  // An unmodifiable map holding only the keys that currently have elements.
+  public Map<K, A> snapshot() {
+    return snapshot;
+  }
+
+  private K addElement(T element) {
+    K key = Objects.requireNonNull(classifier.apply(element),
+        "element cannot be mapped to a null key");
+    Group group = groups.computeIfAbsent(key, k -> new Group());
+    group.members.merge(element, 1, Integer::sum);
+    group.value = aggregate.add(group.value, element);
+    size++;
+    return key;
+  }
+
+  // Publishes the snapshot with only the given key's value replaced or removed.
+  private void publish(K key) {
+    Group group = groups.get(key);
+    snapshot = group == null ? snapshot.without(key) : snapshot.with(key, group.value);
+  }
+
+  private final class Group {
+
+    private final Map<T, Integer> members = new HashMap<>();
+    private A value = aggregate.empty();
+
+    private A rebuild() {
+      A rebuilt = aggregate.empty();
+      for (Map.Entry<T, Integer> member : members.entrySet()) {
+        for (int i = 0; i < member.getValue(); i++) {
+          rebuilt = aggregate.add(rebuilt, member.getKey());
+        }
+      }
+      return rebuilt;
+    }
+  }
+
+  // An immutable hash array mapped trie. A node is a Leaf, a Leaf[] of keys sharing a hash, or
+  // a Branch with one child per 5 bits of hash that are in use. Updates copy the path to the
+  // changed leaf and share everything else with the previous version.
+  private static final class TrieMap<K, V> extends AbstractMap<K, V> {
+
+    private static final TrieMap<?, ?> EMPTY = new TrieMap<>(null, 0);
+
+    private final Object root;
+    private final int size;
+
+    private TrieMap(Object root, int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> TrieMap<K, V> empty() {
+      return (TrieMap<K, V>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return find(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+      Leaf leaf = find(key);
+      return leaf == null ? null : (V) leaf.value;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<Entry<K, V>>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          List<Entry<K, V>> entries = new ArrayList<>(size);
+          collect(root, entries);
+          return Collections.unmodifiableList(entries).iterator();
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+
+    private TrieMap<K, V> with(K key, V value) {
+      Leaf leaf = new Leaf(hash(key), key, value);
+      return new TrieMap<>(put(root, leaf, 0), containsKey(key) ? size : size + 1);
+    }
+
+    private TrieMap<K, V> without(K key) {
+      return containsKey(key) ? new TrieMap<>(remove(root, key, hash(key), 0), size - 1) : this;
+    }
+
+    private Leaf find(Object key) {
+      int hash = hash(key);
+      Object node = root;
+      for (int shift = 0; node instanceof Branch; shift += 5) {
+        Branch branch = (Branch) node;
+        int bit = 1 << (hash >>> shift & 31);
+        if ((branch.bitmap & bit) == 0) {
+          return null;
+        }
+        node = branch.children[Integer.bitCount(branch.bitmap & (bit - 1))];
+      }
+      if (node instanceof Leaf) {
+        Leaf leaf = (Leaf) node;
+        return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+      }
+      if (node instanceof Leaf[]) {
+        for (Leaf leaf : (Leaf[]) node) {
+          if (leaf.hash == hash && leaf.key.equals(key)) {
+            return leaf;
+          }
+        }
+      }
+      return null;
+    }
+
+    private static int hash(Object key) {
+      int hash = key.hashCode();
+      return hash ^ (hash >>> 16);
+    }
+
+    private static Object put(Object node, Leaf leaf, int shift) {
+      if (node == null) {
+        return leaf;
+      }
+      if (node instanceof Branch) {
+        Branch branch = (Branch) node;
+        int bit = 1 << (leaf.hash >>> shift & 31);
+        int index = Integer.bitCount(branch.bitmap & (bit - 1));
+        if ((branch.bitmap & bit) != 0) {
+          Object[] children = branch.children.clone();
+          children[index] = put(children[index], leaf, shift + 5);
+          return new Branch(branch.bitmap, children);
+        }
+        Object[] children = new Object[branch.children.length + 1];
+        System.arraycopy(branch.children, 0, children, 0, index);
+        children[index] = leaf;
+        System.arraycopy(branch.children, index, children, index + 1,
+            branch.children.length - index);
+        return new Branch(branch.bitmap | bit, children);
+      }
+      Leaf[] leaves = node instanceof Leaf ? new Leaf[] {(Leaf) node} : (Leaf[]) node;
+      if (leaves[0].hash != leaf.hash) {
+        return split(node, leaves[0].hash, leaf, shift);
+      }
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].key.equals(leaf.key)) {
+          if (leaves.length == 1) {
+            return leaf;
+          }
+          Leaf[] replaced = leaves.clone();
+          replaced[i] = leaf;
+          return replaced;
+        }
+      }
+      Leaf[] collisions = Arrays.copyOf(leaves, leaves.length + 1);
+      collisions[leaves.length] = leaf;
+      return collisions;
+    }
+
+    // Pushes two nodes of different hashes down until their 5-bit chunks differ.
+    private static Object split(Object node, int hash, Leaf leaf, int shift) {
+      int index = hash >>> shift & 31;
+      int leafIndex = leaf.hash >>> shift & 31;
+      if (index == leafIndex) {
+        return new Branch(1 << index, new Object[] {split(node, hash, leaf, shift + 5)});
+      }
+      return new Branch(1 << index | 1 << leafIndex,
+          index < leafIndex ? new Object[] {node, leaf} : new Object[] {leaf, node});
+    }
+
+    // Only called for keys that are present.
+    private static Object remove(Object node, Object key, int hash, int shift) {
+      if (node instanceof Leaf) {
+        return null;
+      }
+      if (node instanceof Leaf[]) {
+        Leaf[] leaves = (Leaf[]) node;
+        List<Leaf> kept = new ArrayList<>(leaves.length - 1);
+        for (Leaf leaf : leaves) {
+          if (!leaf.key.equals(key)) {
+            kept.add(leaf);
+          }
+        }
+        return kept.size() == 1 ? kept.get(0) : kept.toArray(new Leaf[0]);
+      }
+      Branch branch = (Branch) node;
+      int bit = 1 << (hash >>> shift & 31);
+      int index = Integer.bitCount(branch.bitmap & (bit - 1));
+      Object child = remove(branch.children[index], key, hash, shift + 5);
+      if (child != null) {
+        if (branch.children.length == 1 && !(child instanceof Branch)) {
+          return child;
+        }
+        Object[] children = branch.children.clone();
+        children[index] = child;
+        return new Branch(branch.bitmap, children);
+      }
+      if (branch.children.length == 1) {
+        return null;
+      }
+      Object[] children = new Object[branch.children.length - 1];
+      System.arraycopy(branch.children, 0, children, 0, index);
+      System.arraycopy(branch.children, index + 1, children, index, children.length - index);
+      // A lone leaf needs no branch above it, lookups check its hash and key anyway.
+      if (children.length == 1 && !(children[0] instanceof Branch)) {
+        return children[0];
+      }
+      return new Branch(branch.bitmap & ~bit, children);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void collect(Object node, List<Entry<K, V>> entries) {
+      if (node instanceof Leaf) {
+        Leaf leaf = (Leaf) node;
+        entries.add(new SimpleImmutableEntry<>((K) leaf.key, (V) leaf.value));
+      } else if (node instanceof Leaf[]) {
+        for (Leaf leaf : (Leaf[]) node) {
+          collect(leaf, entries);
+        }
+      } else if (node instanceof Branch) {
+        for (Object child : ((Branch) node).children) {
+          collect(child, entries);
+        }
+      }
+    }
+  }
+
+  private static final class Leaf {
+
+    private final int hash;
+    private final Object key;
+    private final Object value;
+
+    private Leaf(int hash, Object key, Object value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class Branch {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private Branch(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package java8.collect.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+// Keeps only the k best elements seen so far in a heap whose root is the weakest of them,
+// so each element costs at most one comparison against the root and one sift.
+public final class TopKCollectors {
+
+  private TopKCollectors() {
+  }
+
+  public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+    checkK(k);
+    return Collector.of(
+        () -> new ObjectHeap<T>(k, comparator),
+        ObjectHeap::offer,
+        ObjectHeap::merge,
+        ObjectHeap::toSortedList);
+  }
+
+  public static <T> Collector<T, ?, List<T>> bottomK(int k, Comparator<? super T> comparator) {
+    return topK(k, comparator.reversed());
+  }
+
+  public static <T> Collector<T, ?, List<T>> topKByDouble(int k, ToDoubleFunction<? super T> key) {
+    return byDouble(k, key, false);
+  }
+
+  // Keys are ordered like Double.compare, so NaN is the highest key and the last one kept here.
+  public static <T> Collector<T, ?, List<T>> bottomKByDouble(int k,
+      ToDoubleFunction<? super T> key) {
+    return byDouble(k, key, true);
+  }
+
+  public static <T> Collector<T, ?, List<T>> topKByInt(int k, ToIntFunction<? super T> key) {
+    return topKByDouble(k, key::applyAsInt);
+  }
+
+  public static <T> Collector<T, ?, List<T>> bottomKByInt(int k, ToIntFunction<? super T> key) {
+    return bottomKByDouble(k, key::applyAsInt);
+  }
+
+  private static <T> Collector<T, ?, List<T>> byDouble(int k, ToDoubleFunction<? super T> key,
+      boolean lowest) {
+    checkK(k);
+    return Collector.of(
+        () -> new KeyedHeap<T>(k, lowest),
+        (heap, element) -> heap.offer(key.applyAsDouble(element), element),
+        KeyedHeap::merge,
+        KeyedHeap::toSortedList);
+  }
+
+  private static void checkK(int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must not be negative: " + k);
+    }
+  }
+
+  private static final class ObjectHeap<T> {
+
+    private final Object[] elements;
+    private final Comparator<? super T> comparator;
+    private int size;
+
+    private ObjectHeap(int k, Comparator<? super T> comparator) {
+      this.elements = new Object[k];
+      this.comparator = comparator;
+    }
+
+    private void offer(T element) {
+      if (size < elements.length) {
+        elements[size] = element;
+        siftUp(size++);
+      } else if (size > 0 && comparator.compare(element, get(0)) > 0) {
+        elements[0] = element;
+        siftDown(0);
+      }
+    }
+
+    private ObjectHeap<T> merge(ObjectHeap<T> other) {
+      if (other.size > size) {
+        return other.merge(this);
+      }
+      for (int i = 0; i < other.size; i++) {
+        offer(other.get(i));
+      }
+      return this;
+    }
+
+    private List<T> toSortedList() {
+      List<T> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        result.add(get(i));
+      }
+      result.sort(Collections.reverseOrder(comparator));
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int index) {
+      return (T) elements[index];
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (comparator.compare(get(index), get(parent)) >= 0) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int smallest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < size && comparator.compare(get(left), get(smallest)) < 0) {
+          smallest = left;
+        }
+        if (right < size && comparator.compare(get(right), get(smallest)) < 0) {
+          smallest = right;
+        }
+        if (smallest == index) {
+          return;
+        }
+        swap(index, smallest);
+        index = smallest;
+      }
+    }
+
+    private void swap(int i, int j) {
+      Object element = elements[i];
+      elements[i] = elements[j];
+      elements[j] = element;
+    }
+  }
+
+  private static final class KeyedHeap<T> {
+
+    private final double[] keys;
+    private final Object[] elements;
+    private final boolean lowest;
+    private int size;
+
+    // Keeps the k highest keys, or the k lowest ones by reversing the order rather than the keys.
+    private KeyedHeap(int k, boolean lowest) {
+      this.keys = new double[k];
+      this.elements = new Object[k];
+      this.lowest = lowest;
+    }
+
+    private void offer(double key, T element) {
+      if (size < keys.length) {
+        keys[size] = key;
+        elements[size] = element;
+        siftUp(size++);
+      } else if (size > 0 && compare(key, keys[0]) > 0) {
+        keys[0] = key;
+        elements[0] = element;
+        siftDown(0);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private KeyedHeap<T> merge(KeyedHeap<T> other) {
+      if (other.size > size) {
+        return other.merge(this);
+      }
+      for (int i = 0; i < other.size; i++) {
+        offer(other.keys[i], (T) other.elements[i]);
+      }
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> toSortedList() {
+      // Popping the root repeatedly yields the weakest first, so fill the result backwards.
+      Object[] sorted = new Object[size];
+      for (int i = size - 1; i >= 0; i--) {
+        sorted[i] = elements[0];
+        size--;
+        keys[0] = keys[size];
+        elements[0] = elements[size];
+        elements[size] = null;
+        siftDown(0);
+      }
+      List<T> result = new ArrayList<>(sorted.length);
+      for (Object element : sorted) {
+        result.add((T) element);
+      }
+      return result;
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (compare(keys[index], keys[parent]) >= 0) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int smallest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < size && compare(keys[left], keys[smallest]) < 0) {
+          smallest = left;
+        }
+        if (right < size && compare(keys[right], keys[smallest]) < 0) {
+          smallest = right;
+        }
+        if (smallest == index) {
+          return;
+        }
+        swap(index, smallest);
+        index = smallest;
+      }
+    }
+
+    private int compare(double left, double right) {
+      return lowest ? Double.compare(right, left) : Double.compare(left, right);
+    }
+
+    private void swap(int i, int j) {
+      double key = keys[i];
+      keys[i] = keys[j];
+      keys[j] = key;
+      Object element = elements[i];
+      elements[i] = elements[j];
+      elements[j] = element;
+    }
+  }
+}
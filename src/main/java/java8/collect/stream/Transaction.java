@@ -5,6 +5,8 @@ import lombok.ToString;
 @ToString
 public class Transaction {
 
+  public static final double EXPENSIVE_AMOUNT = 50;
+
   private final Currency currency;
   private final double amount;
 
@@ -13,15 +15,23 @@ public class Transaction {
     this.amount = amount;
   }
 
+  public static Transaction ofMinorUnits(Currency currency, long minorUnits) {
+    return new Transaction(currency, currency.toAmount(minorUnits));
+  }
+
   public Currency getCurrency() {
     return currency;
   }
 
   public boolean isExpensive() {
-    return amount >= 50;
+    return amount >= EXPENSIVE_AMOUNT;
   }
 
   public double getAmount() {
     return amount;
   }
+
+  public long getMinorUnits() {
+    return currency.toMinorUnits(amount);
+  }
 }
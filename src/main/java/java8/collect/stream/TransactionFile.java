@@ -0,0 +1,172 @@
+package java8.collect.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Layout (little endian): int magic, int version, long record count, then fixed-width
+// records of one currency ordinal byte followed by the amount as a double.
+public final class TransactionFile {
+
+  static final int MAGIC = 0x314E5854;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 16;
+  static final int RECORD_BYTES = 9;
+
+  private static final Currency[] CURRENCIES = Currency.values();
+  private static final int WRITE_BUFFER_RECORDS = 8192;
+
+  private final ByteBuffer records;
+  private final int size;
+
+  private TransactionFile(ByteBuffer records, int size) {
+    this.records = records;
+    this.size = size;
+  }
+
+  public static void write(Path path, Collection<Transaction> transactions) throws IOException {
+    try (RecordWriter writer = new RecordWriter(path, transactions.size())) {
+      for (Transaction transaction : transactions) {
+        writer.accept(transaction.getCurrency(), transaction.getAmount());
+      }
+    }
+  }
+
+  public static void write(Path path, TransactionLedger ledger) throws IOException {
+    try (RecordWriter writer = new RecordWriter(path, ledger.size())) {
+      ledger.forEach(writer);
+    }
+  }
+
+  public static TransactionFile open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+        throw new IOException("Invalid transaction file size: " + fileSize);
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException("Not a transaction file: " + path);
+      }
+      if (buffer.getInt(4) != VERSION) {
+        throw new IOException("Unsupported transaction file version: " + buffer.getInt(4));
+      }
+      // Bounding count by the file first keeps count * RECORD_BYTES from overflowing.
+      long count = buffer.getLong(8);
+      if (count < 0 || count > (fileSize - HEADER_BYTES) / RECORD_BYTES
+          || HEADER_BYTES + count * RECORD_BYTES != fileSize) {
+        throw new IOException("Truncated transaction file: " + path);
+      }
+      return new TransactionFile(buffer, (int) count);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Currency getCurrency(int index) {
+    return currencyAt(offset(index));
+  }
+
+  public double getAmount(int index) {
+    return records.getDouble(offset(index) + 1);
+  }
+
+  public Transaction get(int index) {
+    int offset = offset(index);
+    return new Transaction(currencyAt(offset), records.getDouble(offset + 1));
+  }
+
+  // Both views split on record boundaries, so parallel() slices the mapped file evenly.
+  public Stream<Transaction> stream() {
+    return StreamSupport.stream(TransactionSpliterator.of(this), false);
+  }
+
+  public DoubleStream amounts() {
+    return IntStream.range(0, size).mapToDouble(this::getAmount);
+  }
+
+  public TransactionLedger toLedger() {
+    TransactionLedger ledger = new TransactionLedger(size);
+    for (int i = 0; i < size; i++) {
+      int offset = HEADER_BYTES + i * RECORD_BYTES;
+      ledger.add(currencyAt(offset), records.getDouble(offset + 1));
+    }
+    return ledger;
+  }
+
+  // Records are only checked when read, so opening a file never touches its pages.
+  private Currency currencyAt(int offset) {
+    int ordinal = records.get(offset);
+    if (ordinal < 0 || ordinal >= CURRENCIES.length) {
+      throw new IllegalStateException("Corrupt transaction file, unknown currency ordinal "
+          + ordinal + " in record " + (offset - HEADER_BYTES) / RECORD_BYTES);
+    }
+    return CURRENCIES[ordinal];
+  }
+
+  private int offset(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return HEADER_BYTES + index * RECORD_BYTES;
+  }
+
+  private static final class RecordWriter implements ObjDoubleConsumer<Currency>, Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private RecordWriter(Path path, int count) throws IOException {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+      this.buffer = ByteBuffer.allocate(WRITE_BUFFER_RECORDS * RECORD_BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(MAGIC).putInt(VERSION).putLong(count);
+    }
+
+    @Override
+    public void accept(Currency currency, double amount) {
+      if (buffer.remaining() < RECORD_BYTES) {
+        try {
+          flush();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      buffer.put((byte) currency.ordinal()).putDouble(amount);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package java8.collect.stream;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.OptionalDouble;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class TransactionLedger {
+
+  private static final Currency[] CURRENCIES = Currency.values();
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final long[] EXPENSIVE_MINOR_UNITS = new long[CURRENCIES.length];
+
+  static {
+    for (Currency currency : CURRENCIES) {
+      EXPENSIVE_MINOR_UNITS[currency.ordinal()] =
+          currency.toMinorUnits(Transaction.EXPENSIVE_AMOUNT);
+    }
+  }
+
+  private byte[] currencies;
+  private long[] minorUnits;
+  private int size;
+
+  public TransactionLedger() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public TransactionLedger(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+    }
+    this.currencies = new byte[initialCapacity];
+    this.minorUnits = new long[initialCapacity];
+  }
+
+  public static TransactionLedger of(Collection<Transaction> transactions) {
+    TransactionLedger ledger = new TransactionLedger(transactions.size());
+    transactions.forEach(ledger::add);
+    return ledger;
+  }
+
+  public void add(Transaction transaction) {
+    add(transaction.getCurrency(), transaction.getAmount());
+  }
+
+  public void add(Currency currency, double amount) {
+    addMinorUnits(currency, currency.toMinorUnits(amount));
+  }
+
+  public void addMinorUnits(Currency currency, long minorUnits) {
+    if (size == this.minorUnits.length) {
+      grow();
+    }
+    currencies[size] = (byte) currency.ordinal();
+    this.minorUnits[size] = minorUnits;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Currency getCurrency(int index) {
+    checkIndex(index);
+    return CURRENCIES[currencies[index]];
+  }
+
+  public double getAmount(int index) {
+    checkIndex(index);
+    return CURRENCIES[currencies[index]].toAmount(minorUnits[index]);
+  }
+
+  public long getMinorUnits(int index) {
+    checkIndex(index);
+    return minorUnits[index];
+  }
+
+  public boolean isExpensive(int index) {
+    checkIndex(index);
+    return minorUnits[index] >= EXPENSIVE_MINOR_UNITS[currencies[index]];
+  }
+
+  public Transaction get(int index) {
+    checkIndex(index);
+    return Transaction.ofMinorUnits(CURRENCIES[currencies[index]], minorUnits[index]);
+  }
+
+  public void forEach(ObjDoubleConsumer<Currency> consumer) {
+    for (int i = 0; i < size; i++) {
+      Currency currency = CURRENCIES[currencies[i]];
+      consumer.accept(currency, currency.toAmount(minorUnits[i]));
+    }
+  }
+
+  public long count(Currency currency) {
+    byte ordinal = (byte) currency.ordinal();
+    long count = 0;
+    for (int i = 0; i < size; i++) {
+      if (currencies[i] == ordinal) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // Sums are exact, so they do not depend on how a parallel reduction splits the ledger, and
+  // throw ArithmeticException rather than wrap around on overflow. Adding minor units of
+  // different currencies only makes sense when they share a scale.
+  public long sumOfMinorUnits() {
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum = Math.addExact(sum, minorUnits[i]);
+    }
+    return sum;
+  }
+
+  public long sumOfMinorUnits(Currency currency) {
+    byte ordinal = (byte) currency.ordinal();
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      if (currencies[i] == ordinal) {
+        sum = Math.addExact(sum, minorUnits[i]);
+      }
+    }
+    return sum;
+  }
+
+  public long[] sumOfMinorUnitsByCurrency() {
+    long[] sums = new long[CURRENCIES.length];
+    for (int i = 0; i < size; i++) {
+      sums[currencies[i]] = Math.addExact(sums[currencies[i]], minorUnits[i]);
+    }
+    return sums;
+  }
+
+  public OptionalDouble average(Currency currency) {
+    long count = count(currency);
+    return count == 0
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(currency.toAmount(sumOfMinorUnits(currency)) / count);
+  }
+
+  public long countExpensive() {
+    long count = 0;
+    for (int i = 0; i < size; i++) {
+      if (minorUnits[i] >= EXPENSIVE_MINOR_UNITS[currencies[i]]) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // Views are bound to the arrays at call time, appends made afterwards are not visible.
+  public LongStream minorUnits() {
+    return Arrays.stream(minorUnits, 0, size);
+  }
+
+  public DoubleStream amounts() {
+    byte[] currencies = this.currencies;
+    long[] minorUnits = this.minorUnits;
+    return IntStream.range(0, size)
+        .mapToDouble(i -> CURRENCIES[currencies[i]].toAmount(minorUnits[i]));
+  }
+
+  public DoubleStream amounts(Currency currency) {
+    byte ordinal = (byte) currency.ordinal();
+    byte[] currencies = this.currencies;
+    long[] minorUnits = this.minorUnits;
+    return IntStream.range(0, size)
+        .filter(i -> currencies[i] == ordinal)
+        .mapToDouble(i -> currency.toAmount(minorUnits[i]));
+  }
+
+  public IntStream currencyOrdinals() {
+    byte[] currencies = this.currencies;
+    return IntStream.range(0, size).map(i -> currencies[i]);
+  }
+
+  public Stream<Transaction> stream() {
+    return StreamSupport.stream(TransactionSpliterator.of(this), false);
+  }
+
+  private void grow() {
+    int capacity = Math.max(DEFAULT_CAPACITY, minorUnits.length + (minorUnits.length >> 1));
+    currencies = Arrays.copyOf(currencies, capacity);
+    minorUnits = Arrays.copyOf(minorUnits, capacity);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package java8.collect.stream;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+// Splits an indexed source exactly in half, so every split of a parallel stream knows its
+// size up front and the fork/join tree stays balanced. Ledgers and lists stay mutable, so the
+// source must not be modified while streamed: a size change is reported like ArrayList does,
+// with a ConcurrentModificationException once detected.
+public class TransactionSpliterator implements Spliterator<Transaction> {
+
+  private static final int CHARACTERISTICS =
+      SIZED | SUBSIZED | ORDERED | NONNULL;
+
+  private final IntFunction<Transaction> source;
+  private final IntSupplier size;
+  private final int expectedSize;
+  private int origin;
+  private final int fence;
+
+  private TransactionSpliterator(IntFunction<Transaction> source, IntSupplier size,
+      int expectedSize, int origin, int fence) {
+    this.source = source;
+    this.size = size;
+    this.expectedSize = expectedSize;
+    this.origin = origin;
+    this.fence = fence;
+  }
+
+  private static TransactionSpliterator of(IntFunction<Transaction> source, IntSupplier size) {
+    int expectedSize = size.getAsInt();
+    return new TransactionSpliterator(source, size, expectedSize, 0, expectedSize);
+  }
+
+  public static TransactionSpliterator of(TransactionLedger ledger) {
+    return of(ledger::get, ledger::size);
+  }
+
+  public static TransactionSpliterator of(TransactionFile file) {
+    return of(file::get, file::size);
+  }
+
+  // The list must support fast random access.
+  public static TransactionSpliterator of(List<Transaction> transactions) {
+    return of(transactions::get, transactions::size);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Transaction> action) {
+    if (origin >= fence) {
+      return false;
+    }
+    action.accept(source.apply(origin++));
+    checkSize();
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Transaction> action) {
+    int fence = this.fence;
+    for (int i = origin; i < fence; i++) {
+      action.accept(source.apply(i));
+    }
+    origin = fence;
+    checkSize();
+  }
+
+  @Override
+  public TransactionSpliterator trySplit() {
+    int middle = (origin + fence) >>> 1;
+    if (middle <= origin) {
+      return null;
+    }
+    TransactionSpliterator prefix =
+        new TransactionSpliterator(source, size, expectedSize, origin, middle);
+    origin = middle;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - origin;
+  }
+
+  @Override
+  public int characteristics() {
+    return CHARACTERISTICS;
+  }
+
+  private void checkSize() {
+    if (size.getAsInt() != expectedSize) {
+      throw new ConcurrentModificationException();
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package java8.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Encodes elements into a batch on the calling thread and hands full batches to a writer thread
+// through a bounded queue, so a slow channel blocks the producer instead of piling up memory.
+// Batches are recycled between the two threads. Meant for a single producer: use forEach on a
+// sequential stream or forEachOrdered on a parallel one. close() writes what is left and closes
+// the channel, a failed write is rethrown to the producer on its next call. A writer thread that
+// stops early, say because it was interrupted, counts as a failure too, so flush() and close()
+// never report success for batches that were not written.
+public class AsyncRecordSink<T> implements Consumer<T>, Closeable {
+
+  public static final int DEFAULT_BATCH_BYTES = 64 * 1024;
+  public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+  private static final RecordBuffer END = new RecordBuffer(0);
+
+  private final WritableByteChannel channel;
+  private final RecordEncoder<? super T> encoder;
+  private final int batchBytes;
+  private final BlockingQueue<RecordBuffer> pending;
+  private final BlockingQueue<RecordBuffer> free;
+  private final Thread writer;
+  private final Object progress = new Object();
+  private RecordBuffer batch;
+  private long submitted;
+  private long written;
+  private volatile IOException failure;
+  private boolean closed;
+
+  public AsyncRecordSink(WritableByteChannel channel, RecordEncoder<? super T> encoder) {
+    this(channel, encoder, DEFAULT_BATCH_BYTES, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  public AsyncRecordSink(WritableByteChannel channel, RecordEncoder<? super T> encoder,
+      int batchBytes, int queueCapacity) {
+    if (batchBytes <= 0 || queueCapacity <= 0) {
+      throw new IllegalArgumentException(
+          "Batch bytes and queue capacity must be positive: " + batchBytes + ", " + queueCapacity);
+    }
+    this.channel = Objects.requireNonNull(channel);
+    this.encoder = Objects.requireNonNull(encoder);
+    this.batchBytes = batchBytes;
+    // One slot more than the batches in flight, so the end marker never waits.
+    this.pending = new ArrayBlockingQueue<>(queueCapacity + 1);
+    this.free = new ArrayBlockingQueue<>(queueCapacity + 1);
+    this.batch = new RecordBuffer(batchBytes);
+    this.writer = new Thread(this::writeBatches, "async-record-sink");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void accept(T element) {
+    checkOpen();
+    encoder.encode(element, batch);
+    if (batch.size() >= batchBytes) {
+      submit();
+    }
+  }
+
+  // Blocks until everything accepted so far has been written to the channel.
+  public void flush() throws IOException {
+    checkOpen();
+    if (batch.size() > 0) {
+      submit();
+    }
+    awaitWritten();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (batch.size() > 0 && failure == null) {
+        submit();
+      }
+      put(END);
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while closing the sink");
+    } finally {
+      channel.close();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void submit() {
+    RecordBuffer full = batch;
+    RecordBuffer next = free.poll();
+    batch = next != null ? next : new RecordBuffer(batchBytes);
+    submitted++;
+    try {
+      put(full);
+      IOException failure = this.failure;
+      if (failure != null) {
+        throw new UncheckedIOException(failure);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(
+          new InterruptedIOException("Interrupted while waiting for the writer"));
+    }
+  }
+
+  // Waits for room in the queue. If the writer has died the batch is lost, which is recorded as
+  // a failure unless an earlier one already explains it.
+  private void put(RecordBuffer buffer) throws InterruptedException {
+    while (!pending.offer(buffer, 10, TimeUnit.MILLISECONDS)) {
+      if (!writer.isAlive()) {
+        fail(new IOException("Writer thread stopped, records were dropped"));
+        return;
+      }
+    }
+  }
+
+  private void fail(IOException e) {
+    synchronized (progress) {
+      if (failure == null) {
+        failure = e;
+      }
+      progress.notifyAll();
+    }
+  }
+
+  private void awaitWritten() throws IOException {
+    synchronized (progress) {
+      while (written < submitted && failure == null && writer.isAlive()) {
+        try {
+          progress.wait(10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while flushing the sink");
+        }
+      }
+      if (written < submitted && failure == null) {
+        fail(new IOException("Writer thread stopped, records were dropped"));
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Sink is closed");
+    }
+    IOException failure = this.failure;
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+
+  private void writeBatches() {
+    boolean ended = false;
+    try {
+      for (RecordBuffer buffer = pending.take(); buffer != END; buffer = pending.take()) {
+        if (failure == null) {
+          write(buffer);
+        }
+        buffer.clear();
+        free.offer(buffer);
+        synchronized (progress) {
+          written++;
+          progress.notifyAll();
+        }
+      }
+      ended = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (!ended) {
+        fail(new IOException("Writer thread stopped before the end of the records"));
+      }
+    }
+  }
+
+  private void write(RecordBuffer buffer) {
+    try {
+      ByteBuffer bytes = buffer.toByteBuffer();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    } catch (IOException e) {
+      fail(e);
+    } catch (RuntimeException e) {
+      fail(new IOException(e));
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package java8.io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// A growable byte array that encoders append UTF-8 text and decimal numbers to directly, so a
+// record never goes through an intermediate String. Reused from batch to batch by the sink.
+public final class RecordBuffer {
+
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+  private byte[] bytes;
+  private int size;
+
+  RecordBuffer(int initialCapacity) {
+    this.bytes = new byte[initialCapacity];
+  }
+
+  public RecordBuffer append(char c) {
+    if (c < 0x80) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) c;
+    } else if (c < 0x800) {
+      ensureCapacity(2);
+      bytes[size++] = (byte) (0xC0 | c >> 6);
+      bytes[size++] = (byte) (0x80 | c & 0x3F);
+    } else if (Character.isSurrogate(c)) {
+      // A lone surrogate is written as '?', like String.getBytes(UTF_8) does.
+      ensureCapacity(1);
+      bytes[size++] = '?';
+    } else {
+      appendCodePoint(c);
+    }
+    return this;
+  }
+
+  public RecordBuffer append(CharSequence text) {
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+      } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        appendCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+      } else {
+        append(c);
+      }
+    }
+    return this;
+  }
+
+  public RecordBuffer append(long value) {
+    if (value == Long.MIN_VALUE) {
+      ensureCapacity(MIN_LONG.length);
+      System.arraycopy(MIN_LONG, 0, bytes, size, MIN_LONG.length);
+      size += MIN_LONG.length;
+      return this;
+    }
+    if (value < 0) {
+      append('-');
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    ensureCapacity(digits);
+    for (int i = size + digits - 1; i >= size; i--) {
+      bytes[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    size += digits;
+    return this;
+  }
+
+  // Writes minorUnits / 10^fractionDigits with exactly fractionDigits decimals, e.g. 1050 with
+  // two digits as 10.50.
+  public RecordBuffer appendDecimal(long minorUnits, int fractionDigits) {
+    if (fractionDigits == 0) {
+      return append(minorUnits);
+    }
+    if (minorUnits < 0) {
+      append('-');
+    }
+    long unit = 1;
+    for (int i = 0; i < fractionDigits; i++) {
+      unit *= 10;
+    }
+    long fraction = Math.abs(minorUnits % unit);
+    append(Math.abs(minorUnits / unit)).append('.');
+    ensureCapacity(fractionDigits);
+    for (int i = size + fractionDigits - 1; i >= size; i--) {
+      bytes[i] = (byte) ('0' + fraction % 10);
+      fraction /= 10;
+    }
+    size += fractionDigits;
+    return this;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  ByteBuffer toByteBuffer() {
+    return ByteBuffer.wrap(bytes, 0, size);
+  }
+
+  private void appendCodePoint(int codePoint) {
+    ensureCapacity(4);
+    if (codePoint < 0x10000) {
+      bytes[size++] = (byte) (0xE0 | codePoint >> 12);
+      bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+    } else {
+      bytes[size++] = (byte) (0xF0 | codePoint >> 18);
+      bytes[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+      bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+    }
+    bytes[size++] = (byte) (0x80 | codePoint & 0x3F);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+    }
+  }
+}
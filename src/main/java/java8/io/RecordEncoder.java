@@ -0,0 +1,8 @@
+package java8.io;
+
+// Appends one record, including its line separator, to a batch.
+@FunctionalInterface
+public interface RecordEncoder<T> {
+
+  void encode(T element, RecordBuffer buffer);
+}
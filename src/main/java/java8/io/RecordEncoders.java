@@ -0,0 +1,47 @@
+package java8.io;
+
+import java8.collect.stream.Currency;
+import java8.collect.stream.Transaction;
+import java8.lambda.and.method.reference.Apple;
+import java8.streams.Dish;
+
+// Line encoders for apples, transactions and dishes. Apples and transactions follow their
+// toString layout; Dish has no toString, so dishes get the same Name(field=value) shape.
+// Amounts that are whole minor units are written with the currency's fraction digits, so
+// 100.5 MAD is written 100.50. Any other amount is written in full, as Double.toString does,
+// so 0.004 MAD stays 0.004 rather than being rounded to 0.00.
+public final class RecordEncoders {
+
+  private RecordEncoders() {
+  }
+
+  public static RecordEncoder<Apple> apples() {
+    return (apple, buffer) -> buffer
+        .append("Apple(color=").append(String.valueOf(apple.getColor()))
+        .append(", weight=").append(apple.getWeight())
+        .append(")\n");
+  }
+
+  public static RecordEncoder<Transaction> transactions() {
+    return (transaction, buffer) -> {
+      buffer.append("Transaction(currency=").append(transaction.getCurrency().name())
+          .append(", amount=");
+      Currency currency = transaction.getCurrency();
+      double amount = transaction.getAmount();
+      if (currency.isWholeMinorUnits(amount)) {
+        buffer.appendDecimal(currency.toMinorUnits(amount), currency.getFractionDigits());
+      } else {
+        buffer.append(Double.toString(amount));
+      }
+      buffer.append(")\n");
+    };
+  }
+
+  public static RecordEncoder<Dish> dishes() {
+    return (dish, buffer) -> buffer
+        .append("Dish(name=").append(String.valueOf(dish.getName()))
+        .append(", calories=").append(dish.getCalories())
+        .append(", dishType=").append(String.valueOf(dish.getDishType()))
+        .append(")\n");
+  }
+}
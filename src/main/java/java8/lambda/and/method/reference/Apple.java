@@ -1,17 +1,20 @@
 package java8.lambda.and.method.reference;
 
-import java.util.function.Predicate;
+import java.util.Objects;
 import lombok.ToString;
 
-@ToString(exclude = {"isBright", "isHeavy"})
+@ToString
 public class Apple implements Comparable<Apple> {
 
+  private static final AppleRule HEAVY = AppleRule.weightAtLeast(100);
+  private static final AppleRule BRIGHT = AppleRule.color(Color.GREEN);
+  private static final CompiledAppleRule IS_HEAVY = HEAVY.compile();
+  private static final CompiledAppleRule IS_LIGHT_WEIGHT = HEAVY.not().compile();
+  private static final CompiledAppleRule IS_EXPENSIVE = HEAVY.or(BRIGHT).compile();
+
   private final Color color;
   private final int weight;
 
-  private Predicate<Apple> isHeavy = apple -> apple.getWeight() >= 100;
-  private Predicate<Apple> isBright = apple -> apple.getColor().equals(Color.GREEN);
-
   public Apple(Color color, int weight) {
     this.color = color;
     this.weight = weight;
@@ -26,23 +29,38 @@ public class Apple implements Comparable<Apple> {
   }
 
   public boolean isHeavy() {
-    return isHeavy.test(this);
+    return IS_HEAVY.test(color, weight);
   }
 
   @Override
   public int compareTo(Apple apple) {
-    return weight - apple.weight;
+    return Integer.compare(weight, apple.weight);
   }
 
   public boolean matches(Color color, int weight) {
     return this.weight == weight && this.color == color;
   }
 
+  // Apples from Apples.of are mostly canonical, so comparing them usually ends at identity.
+  public boolean matches(Apple apple) {
+    return this == apple || apple != null && matches(apple.color, apple.weight);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof Apple && matches((Apple) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Objects.hashCode(color) + weight;
+  }
+
   public boolean isLightWeight() {
-    return isHeavy.negate().test(this);
+    return IS_LIGHT_WEIGHT.test(color, weight);
   }
 
   public boolean isExpensive() {
-    return isHeavy.or(isBright).test(this);
+    return IS_EXPENSIVE.test(color, weight);
   }
 }
@@ -0,0 +1,206 @@
+package java8.lambda.and.method.reference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// A business rule over an apple's color and weight, built from weight thresholds and colors with
+// and/or/not. Rules are only evaluated through compile(), which folds the whole tree into a few
+// weight boundaries per color.
+public abstract class AppleRule {
+
+  private static final Color[] COLORS = Color.values();
+
+  AppleRule() {
+  }
+
+  public static AppleRule weightAtLeast(int weight) {
+    return new WeightAtLeast(weight);
+  }
+
+  public static AppleRule weightBelow(int weight) {
+    return weightAtLeast(weight).not();
+  }
+
+  // Both bounds inclusive.
+  public static AppleRule weightBetween(int min, int max) {
+    if (min > max) {
+      throw new IllegalArgumentException("Empty weight range: " + min + " > " + max);
+    }
+    return max == Integer.MAX_VALUE
+        ? weightAtLeast(min)
+        : weightAtLeast(min).and(weightBelow(max + 1));
+  }
+
+  public static AppleRule color(Color first, Color... others) {
+    return new ColorIn(EnumSet.of(first, others));
+  }
+
+  public AppleRule and(AppleRule other) {
+    return new And(this, other);
+  }
+
+  public AppleRule or(AppleRule other) {
+    return new Or(this, other);
+  }
+
+  public AppleRule not() {
+    return new Not(this);
+  }
+
+  // For every color, the weights matching any rule form intervals that start at the rule's
+  // thresholds, so testing the lowest weight and each threshold finds where the outcome flips.
+  // The last row is for apples without a color, which match no color rule.
+  public CompiledAppleRule compile() {
+    Set<Integer> thresholds = new TreeSet<>();
+    collectThresholds(thresholds);
+    boolean[] matchesLightest = new boolean[COLORS.length + 1];
+    int[][] boundaries = new int[COLORS.length + 1][];
+    for (int row = 0; row <= COLORS.length; row++) {
+      Color color = row < COLORS.length ? COLORS[row] : null;
+      boolean matches = test(color, Integer.MIN_VALUE);
+      matchesLightest[row] = matches;
+      List<Integer> flips = new ArrayList<>();
+      for (int threshold : thresholds) {
+        if (test(color, threshold) != matches) {
+          matches = !matches;
+          flips.add(threshold);
+        }
+      }
+      boundaries[row] = flips.stream().mapToInt(Integer::intValue).toArray();
+    }
+    return new CompiledAppleRule(matchesLightest, boundaries);
+  }
+
+  abstract boolean test(Color color, int weight);
+
+  abstract void collectThresholds(Set<Integer> thresholds);
+
+  private static final class WeightAtLeast extends AppleRule {
+
+    private final int weight;
+
+    private WeightAtLeast(int weight) {
+      this.weight = weight;
+    }
+
+    @Override
+    boolean test(Color color, int weight) {
+      return weight >= this.weight;
+    }
+
+    @Override
+    void collectThresholds(Set<Integer> thresholds) {
+      thresholds.add(weight);
+    }
+
+    @Override
+    public String toString() {
+      return "weight >= " + weight;
+    }
+  }
+
+  private static final class ColorIn extends AppleRule {
+
+    private final Set<Color> colors;
+
+    private ColorIn(Set<Color> colors) {
+      this.colors = colors;
+    }
+
+    @Override
+    boolean test(Color color, int weight) {
+      return colors.contains(color);
+    }
+
+    @Override
+    void collectThresholds(Set<Integer> thresholds) {
+    }
+
+    @Override
+    public String toString() {
+      return "color in " + colors;
+    }
+  }
+
+  private static final class And extends AppleRule {
+
+    private final AppleRule left;
+    private final AppleRule right;
+
+    private And(AppleRule left, AppleRule right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean test(Color color, int weight) {
+      return left.test(color, weight) && right.test(color, weight);
+    }
+
+    @Override
+    void collectThresholds(Set<Integer> thresholds) {
+      left.collectThresholds(thresholds);
+      right.collectThresholds(thresholds);
+    }
+
+    @Override
+    public String toString() {
+      return "(" + left + " and " + right + ")";
+    }
+  }
+
+  private static final class Or extends AppleRule {
+
+    private final AppleRule left;
+    private final AppleRule right;
+
+    private Or(AppleRule left, AppleRule right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean test(Color color, int weight) {
+      return left.test(color, weight) || right.test(color, weight);
+    }
+
+    @Override
+    void collectThresholds(Set<Integer> thresholds) {
+      left.collectThresholds(thresholds);
+      right.collectThresholds(thresholds);
+    }
+
+    @Override
+    public String toString() {
+      return "(" + left + " or " + right + ")";
+    }
+  }
+
+  private static final class Not extends AppleRule {
+
+    private final AppleRule rule;
+
+    private Not(AppleRule rule) {
+      this.rule = rule;
+    }
+
+    @Override
+    boolean test(Color color, int weight) {
+      return !rule.test(color, weight);
+    }
+
+    @Override
+    void collectThresholds(Set<Integer> thresholds) {
+      rule.collectThresholds(thresholds);
+    }
+
+    @Override
+    public String toString() {
+      return "not " + rule;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package java8.lambda.and.method.reference;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+// Sorts apples on a primitive key packing the chosen attributes, first attribute in the highest
+// bits, instead of calling a Comparator per comparison. sort() runs a stable LSD radix sort over
+// the keys with a parallel array of positions, skipping the bytes every key shares;
+// parallelSort() appends the position to the key and hands the longs to Arrays.parallelSort.
+// Both are stable, ties keep their order in the list.
+public final class AppleSorter {
+
+  public enum Attribute {
+    COLOR(32 - Integer.numberOfLeadingZeros(Color.values().length - 1)),
+    WEIGHT(Integer.SIZE);
+
+    private final int bits;
+
+    Attribute(int bits) {
+      this.bits = bits;
+    }
+
+    private long key(Apple apple) {
+      // Flipping the sign bit makes unsigned order of the weights match their signed order.
+      return this == COLOR
+          ? apple.getColor().ordinal()
+          : (apple.getWeight() ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+  }
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+
+  private final Attribute[] attributes;
+  private final boolean descending;
+  private final int keyBits;
+
+  private AppleSorter(Attribute[] attributes, boolean descending) {
+    this.attributes = attributes;
+    this.descending = descending;
+    int keyBits = 0;
+    for (Attribute attribute : attributes) {
+      keyBits += attribute.bits;
+    }
+    this.keyBits = keyBits;
+  }
+
+  public static AppleSorter by(Attribute first, Attribute... then) {
+    Attribute[] attributes = new Attribute[then.length + 1];
+    attributes[0] = first;
+    System.arraycopy(then, 0, attributes, 1, then.length);
+    for (int i = 0; i < attributes.length; i++) {
+      for (int j = 0; j < i; j++) {
+        if (attributes[i] == attributes[j]) {
+          throw new IllegalArgumentException("Duplicate sort attribute: " + attributes[i]);
+        }
+      }
+    }
+    return new AppleSorter(attributes, false);
+  }
+
+  public AppleSorter reversed() {
+    return new AppleSorter(attributes, !descending);
+  }
+
+  public long key(Apple apple) {
+    long key = 0;
+    for (Attribute attribute : attributes) {
+      key = key << attribute.bits | attribute.key(apple);
+    }
+    return descending ? ~key & mask(keyBits) : key;
+  }
+
+  public void sort(List<Apple> apples) {
+    Apple[] elements = apples.toArray(new Apple[0]);
+    long[] keys = new long[elements.length];
+    int[] positions = new int[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      keys[i] = key(elements[i]);
+      positions[i] = i;
+    }
+    radixSort(keys, positions);
+    writeBack(apples, elements, positions);
+  }
+
+  public void parallelSort(List<Apple> apples) {
+    Apple[] elements = apples.toArray(new Apple[0]);
+    int positionBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, elements.length - 1));
+    if (keyBits + positionBits > Long.SIZE - 1) {
+      sort(apples);
+      return;
+    }
+    long[] packed = new long[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      packed[i] = key(elements[i]) << positionBits | i;
+    }
+    Arrays.parallelSort(packed);
+    int[] positions = new int[elements.length];
+    long positionMask = mask(positionBits);
+    for (int i = 0; i < packed.length; i++) {
+      positions[i] = (int) (packed[i] & positionMask);
+    }
+    writeBack(apples, elements, positions);
+  }
+
+  private void radixSort(long[] keys, int[] positions) {
+    int passes = (keyBits + RADIX_BITS - 1) / RADIX_BITS;
+    int[][] counts = new int[passes][RADIX];
+    for (long key : keys) {
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass][(int) (key >>> pass * RADIX_BITS) & RADIX - 1]++;
+      }
+    }
+    long[] keyBuffer = new long[keys.length];
+    int[] positionBuffer = new int[keys.length];
+    long[] fromKeys = keys;
+    int[] fromPositions = positions;
+    for (int pass = 0; pass < passes; pass++) {
+      int[] count = counts[pass];
+      if (keys.length == 0 || count[(int) (keys[0] >>> pass * RADIX_BITS) & RADIX - 1]
+          == keys.length) {
+        continue;
+      }
+      int[] offsets = new int[RADIX];
+      for (int digit = 1; digit < RADIX; digit++) {
+        offsets[digit] = offsets[digit - 1] + count[digit - 1];
+      }
+      long[] toKeys = fromKeys == keys ? keyBuffer : keys;
+      int[] toPositions = fromPositions == positions ? positionBuffer : positions;
+      for (int i = 0; i < fromKeys.length; i++) {
+        int target = offsets[(int) (fromKeys[i] >>> pass * RADIX_BITS) & RADIX - 1]++;
+        toKeys[target] = fromKeys[i];
+        toPositions[target] = fromPositions[i];
+      }
+      fromKeys = toKeys;
+      fromPositions = toPositions;
+    }
+    if (fromPositions != positions) {
+      System.arraycopy(fromPositions, 0, positions, 0, positions.length);
+    }
+  }
+
+  private static void writeBack(List<Apple> apples, Apple[] elements, int[] positions) {
+    ListIterator<Apple> iterator = apples.listIterator();
+    for (int position : positions) {
+      iterator.next();
+      iterator.set(elements[position]);
+    }
+  }
+
+  private static long mask(int bits) {
+    return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+  }
+}
@@ -0,0 +1,90 @@
+package java8.lambda.and.method.reference;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hands out one shared immutable Apple per color and weight instead of a new object per call.
+// Weights in [MIN_CACHED_WEIGHT, MAX_CACHED_WEIGHT] come from a table filled at class load.
+// Other weights are interned in a concurrent map until it holds MAX_OVERFLOW_APPLES entries
+// (racing threads may overshoot by one each). Entries are never evicted, so the first weights
+// seen stay canonical, and once the map is full other weights get a fresh, equal apple per call
+// like Integer.valueOf does, so arbitrary weights cannot grow the heap without bound.
+public final class Apples {
+
+  public static final int MIN_CACHED_WEIGHT = 0;
+  public static final int MAX_CACHED_WEIGHT = 4095;
+  public static final int MAX_OVERFLOW_APPLES = 4096;
+
+  private static final Color[] COLORS = Color.values();
+  private static final Apple[][] TABLE = new Apple[COLORS.length][];
+  private static final Overflow OVERFLOW = new Overflow(MAX_OVERFLOW_APPLES);
+
+  static {
+    for (Color color : COLORS) {
+      Apple[] apples = new Apple[MAX_CACHED_WEIGHT - MIN_CACHED_WEIGHT + 1];
+      for (int i = 0; i < apples.length; i++) {
+        apples[i] = new Apple(color, MIN_CACHED_WEIGHT + i);
+      }
+      TABLE[color.ordinal()] = apples;
+    }
+  }
+
+  private Apples() {
+  }
+
+  public static Apple of(Color color, int weight) {
+    if (weight >= MIN_CACHED_WEIGHT && weight <= MAX_CACHED_WEIGHT) {
+      return TABLE[color.ordinal()][weight - MIN_CACHED_WEIGHT];
+    }
+    return OVERFLOW.of(color, weight);
+  }
+
+  // The i-th apple has color Color.values()[colorOrdinals[i]] and weight weights[i].
+  public static List<Apple> of(byte[] colorOrdinals, int[] weights) {
+    if (colorOrdinals.length != weights.length) {
+      throw new IllegalArgumentException(
+          "Got " + colorOrdinals.length + " colors for " + weights.length + " weights");
+    }
+    Apple[] apples = new Apple[weights.length];
+    for (int i = 0; i < apples.length; i++) {
+      int ordinal = colorOrdinals[i];
+      if (ordinal < 0 || ordinal >= COLORS.length) {
+        throw new IllegalArgumentException("Unknown color ordinal: " + ordinal);
+      }
+      int weight = weights[i];
+      apples[i] = weight >= MIN_CACHED_WEIGHT && weight <= MAX_CACHED_WEIGHT
+          ? TABLE[ordinal][weight - MIN_CACHED_WEIGHT]
+          : of(COLORS[ordinal], weight);
+    }
+    return Arrays.asList(apples);
+  }
+
+  static final class Overflow {
+
+    private final int capacity;
+    private final ConcurrentHashMap<Long, Apple> apples = new ConcurrentHashMap<>();
+
+    Overflow(int capacity) {
+      this.capacity = capacity;
+    }
+
+    Apple of(Color color, int weight) {
+      Long key = (long) color.ordinal() << 32 | weight & 0xFFFF_FFFFL;
+      Apple cached = apples.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      Apple apple = new Apple(color, weight);
+      if (apples.size() >= capacity) {
+        return apple;
+      }
+      Apple previous = apples.putIfAbsent(key, apple);
+      return previous == null ? apple : previous;
+    }
+
+    int size() {
+      return apples.size();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package java8.lambda.and.method.reference;
+
+import java.util.function.Predicate;
+
+// The flat form of an AppleRule: per color, whether the lightest weights match and the sorted
+// weights at which the outcome flips. Most rules flip at most once per color, so a test is one
+// array load and one comparison, and filtering allocates nothing.
+public final class CompiledAppleRule implements Predicate<Apple> {
+
+  private final boolean[] matchesLightest;
+  private final int[][] boundaries;
+
+  CompiledAppleRule(boolean[] matchesLightest, int[][] boundaries) {
+    this.matchesLightest = matchesLightest;
+    this.boundaries = boundaries;
+  }
+
+  @Override
+  public boolean test(Apple apple) {
+    return test(apple.getColor(), apple.getWeight());
+  }
+
+  // A null color, which Apple allows, uses the extra row after the last color.
+  public boolean test(Color color, int weight) {
+    int row = color == null ? matchesLightest.length - 1 : color.ordinal();
+    boolean matches = matchesLightest[row];
+    for (int boundary : boundaries[row]) {
+      if (weight < boundary) {
+        break;
+      }
+      matches = !matches;
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,228 @@
+package java8.maps;
+
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
+// An IntInventoryMap that keeps the sum and count of its non-null prices up to date on every
+// write, so defaults like "an unknown item costs the total of the known ones" are O(1) instead
+// of a pass over values(). Min and max come from heaps that get an entry per price written and
+// drop entries lazily once they reach the top and no longer match the map. Not thread-safe.
+public class AggregatingInventory {
+
+  private final IntInventoryMap prices;
+  private final LazyHeap minimums = new LazyHeap(false);
+  private final LazyHeap maximums = new LazyHeap(true);
+  private long sum;
+  private int count;
+
+  public AggregatingInventory() {
+    this.prices = new IntInventoryMap();
+  }
+
+  public AggregatingInventory(int expectedSize) {
+    this.prices = new IntInventoryMap(expectedSize);
+  }
+
+  public int size() {
+    return prices.size();
+  }
+
+  public boolean containsKey(String key) {
+    return prices.containsKey(key);
+  }
+
+  public boolean isNull(String key) {
+    return prices.isNull(key);
+  }
+
+  public int getOrDefault(String key, int defaultValue) {
+    return prices.getOrDefault(key, defaultValue);
+  }
+
+  public int getOrDefault(String key, int absentValue, int nullValue) {
+    return prices.getOrDefault(key, absentValue, nullValue);
+  }
+
+  public void put(String key, int value) {
+    forget(key);
+    prices.put(key, value);
+    record(key, value);
+  }
+
+  public void putNull(String key) {
+    forget(key);
+    prices.putNull(key);
+  }
+
+  public int mergeInt(String key, int value, IntBinaryOperator remapping) {
+    // Read the old price first so a throwing remapping leaves the aggregates untouched.
+    boolean hadPrice = hasPrice(key);
+    int oldPrice = prices.getOrDefault(key, 0);
+    int merged = prices.mergeInt(key, value, remapping);
+    if (hadPrice) {
+      sum -= oldPrice;
+      count--;
+    }
+    record(key, merged);
+    return merged;
+  }
+
+  // The mapping function may read the aggregates, they do not include the key yet.
+  public int computeIfAbsent(String key, ToIntFunction<? super String> mapping) {
+    if (hasPrice(key)) {
+      return prices.getOrDefault(key, 0);
+    }
+    int value = mapping.applyAsInt(key);
+    put(key, value);
+    return value;
+  }
+
+  public boolean remove(String key) {
+    forget(key);
+    return prices.remove(key);
+  }
+
+  // Sum and count of the non-null prices.
+  public long sum() {
+    return sum;
+  }
+
+  public int count() {
+    return count;
+  }
+
+  public OptionalDouble average() {
+    return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sum / count);
+  }
+
+  public OptionalInt min() {
+    return minimums.peek();
+  }
+
+  public OptionalInt max() {
+    return maximums.peek();
+  }
+
+  private boolean hasPrice(String key) {
+    return prices.containsKey(key) && !prices.isNull(key);
+  }
+
+  private void forget(String key) {
+    if (hasPrice(key)) {
+      sum -= prices.getOrDefault(key, 0);
+      count--;
+    }
+  }
+
+  private void record(String key, int value) {
+    sum += value;
+    count++;
+    minimums.push(key, value);
+    maximums.push(key, value);
+  }
+
+  // An entry is live while its key still has exactly that price. Entries are never removed
+  // eagerly, the heap is rebuilt from the map once stale entries outnumber live ones.
+  private final class LazyHeap {
+
+    private final boolean max;
+    private String[] keys = new String[16];
+    private int[] values = new int[16];
+    private int size;
+
+    private LazyHeap(boolean max) {
+      this.max = max;
+    }
+
+    private void push(String key, int value) {
+      if (size > 2 * count + 16) {
+        rebuild();
+      }
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      keys[size] = key;
+      values[size] = value;
+      siftUp(size++);
+    }
+
+    private OptionalInt peek() {
+      while (size > 0 && !isLive(keys[0], values[0])) {
+        size--;
+        keys[0] = keys[size];
+        values[0] = values[size];
+        keys[size] = null;
+        siftDown(0);
+      }
+      return size == 0 ? OptionalInt.empty() : OptionalInt.of(values[0]);
+    }
+
+    // ~value differs from value, so an absent key or a null price never looks live.
+    private boolean isLive(String key, int value) {
+      return prices.getOrDefault(key, ~value, ~value) == value;
+    }
+
+    private void rebuild() {
+      Arrays.fill(keys, 0, size, null);
+      size = 0;
+      prices.forEach((key, value) -> {
+        if (size == keys.length) {
+          keys = Arrays.copyOf(keys, size * 2);
+          values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size++] = value;
+      });
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i);
+      }
+    }
+
+    private boolean before(int i, int j) {
+      return max ? values[i] > values[j] : values[i] < values[j];
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (!before(index, parent)) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int first = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < size && before(left, first)) {
+          first = left;
+        }
+        if (right < size && before(right, first)) {
+          first = right;
+        }
+        if (first == index) {
+          return;
+        }
+        swap(index, first);
+        index = first;
+      }
+    }
+
+    private void swap(int i, int j) {
+      String key = keys[i];
+      keys[i] = keys[j];
+      keys[j] = key;
+      int value = values[i];
+      values[i] = values[j];
+      values[j] = value;
+    }
+  }
+}
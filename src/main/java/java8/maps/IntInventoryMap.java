@@ -0,0 +1,287 @@
+package java8.maps;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+// A String to int map with HashMap's null-value semantics and no boxing: keys, their hashes and
+// prices sit in parallel arrays probed linearly from the key's hash, so a probe only touches a
+// key String when the hashes match, and a bitmap marks the keys present with a null price, like
+// "hp" in MapsTest. Removal shifts the following entries back instead of
+// leaving tombstones. Not thread-safe.
+public class IntInventoryMap {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private String[] keys;
+  private int[] hashes;
+  private int[] values;
+  private long[] nulls;
+  private int size;
+  private int nullCount;
+
+  public IntInventoryMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public IntInventoryMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+    }
+    allocate(tableSizeFor(expectedSize));
+  }
+
+  public static IntInventoryMap copyOf(Map<String, Integer> map) {
+    IntInventoryMap copy = new IntInventoryMap(map.size());
+    map.forEach((key, value) -> {
+      if (value == null) {
+        copy.putNull(key);
+      } else {
+        copy.put(key, value);
+      }
+    });
+    return copy;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(String key) {
+    return find(key) >= 0;
+  }
+
+  // True when the key is present with a null price.
+  public boolean isNull(String key) {
+    int slot = find(key);
+    return slot >= 0 && isNullAt(slot);
+  }
+
+  // The price of the key, defaultValue when it is absent or its price is null.
+  public int getOrDefault(String key, int defaultValue) {
+    return getOrDefault(key, defaultValue, defaultValue);
+  }
+
+  public int getOrDefault(String key, int absentValue, int nullValue) {
+    int slot = find(key);
+    if (slot < 0) {
+      return absentValue;
+    }
+    return isNullAt(slot) ? nullValue : values[slot];
+  }
+
+  public void put(String key, int value) {
+    int slot = slotForWrite(key);
+    values[slot] = value;
+    clearNull(slot);
+  }
+
+  public void putNull(String key) {
+    int slot = slotForWrite(key);
+    values[slot] = 0;
+    setNull(slot);
+  }
+
+  // Like Map.merge: stores value when the key is absent or null, otherwise
+  // remapping(current, value). Returns the stored price.
+  public int mergeInt(String key, int value, IntBinaryOperator remapping) {
+    int slot = find(key);
+    if (slot < 0 || isNullAt(slot)) {
+      put(key, value);
+      return value;
+    }
+    int merged = remapping.applyAsInt(values[slot], value);
+    values[slot] = merged;
+    return merged;
+  }
+
+  // Like Map.computeIfAbsent: computes a price when the key is absent or null. The function may
+  // read this map, it runs before anything is stored.
+  public int computeIfAbsent(String key, ToIntFunction<? super String> mapping) {
+    int slot = find(key);
+    if (slot >= 0 && !isNullAt(slot)) {
+      return values[slot];
+    }
+    int value = mapping.applyAsInt(key);
+    put(key, value);
+    return value;
+  }
+
+  public boolean remove(String key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return false;
+    }
+    deleteAt(slot);
+    return true;
+  }
+
+  // Visits the keys with a non-null price.
+  public void forEach(ObjIntConsumer<String> action) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null && !isNullAt(slot)) {
+        action.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  // The non-null prices, bound to the table at call time.
+  public IntStream values() {
+    String[] keys = this.keys;
+    int[] values = this.values;
+    long[] nulls = this.nulls;
+    return IntStream.range(0, keys.length)
+        .filter(slot -> keys[slot] != null && (nulls[slot >>> 6] & 1L << slot) == 0)
+        .map(slot -> values[slot]);
+  }
+
+  public int nullCount() {
+    return nullCount;
+  }
+
+  private int find(String key) {
+    int mask = keys.length - 1;
+    int hash = hash(key);
+    for (int slot = hash & mask; ; slot = slot + 1 & mask) {
+      String candidate = keys[slot];
+      if (candidate == null) {
+        return -1;
+      }
+      if (hashes[slot] == hash && (candidate == key || candidate.equals(key))) {
+        return slot;
+      }
+    }
+  }
+
+  private int slotForWrite(String key) {
+    Objects.requireNonNull(key, "key");
+    int mask = keys.length - 1;
+    int hash = hash(key);
+    int slot = hash & mask;
+    for (String candidate = keys[slot]; candidate != null; candidate = keys[slot]) {
+      if (hashes[slot] == hash && (candidate == key || candidate.equals(key))) {
+        return slot;
+      }
+      slot = slot + 1 & mask;
+    }
+    if (size + 1 > keys.length - (keys.length >>> 2)) {
+      resize(keys.length << 1);
+      return slotForWrite(key);
+    }
+    keys[slot] = key;
+    hashes[slot] = hash;
+    size++;
+    return slot;
+  }
+
+  // Moves every later entry of the probe run whose home slot does not lie cyclically in
+  // (hole, entry] back into the hole, so lookups never need tombstones.
+  private void deleteAt(int hole) {
+    int mask = keys.length - 1;
+    clearNull(hole);
+    for (int slot = hole + 1 & mask; keys[slot] != null; slot = slot + 1 & mask) {
+      int home = hashes[slot] & mask;
+      boolean stays = hole <= slot
+          ? hole < home && home <= slot
+          : hole < home || home <= slot;
+      if (!stays) {
+        keys[hole] = keys[slot];
+        hashes[hole] = hashes[slot];
+        values[hole] = values[slot];
+        if (isNullAt(slot)) {
+          clearNull(slot);
+          setNull(hole);
+        }
+        hole = slot;
+      }
+    }
+    keys[hole] = null;
+    values[hole] = 0;
+    size--;
+  }
+
+  private void resize(int capacity) {
+    String[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    int[] oldValues = values;
+    long[] oldNulls = nulls;
+    allocate(capacity);
+    int mask = capacity - 1;
+    for (int old = 0; old < oldKeys.length; old++) {
+      String key = oldKeys[old];
+      if (key != null) {
+        int slot = oldHashes[old] & mask;
+        while (keys[slot] != null) {
+          slot = slot + 1 & mask;
+        }
+        keys[slot] = key;
+        hashes[slot] = oldHashes[old];
+        values[slot] = oldValues[old];
+        if ((oldNulls[old >>> 6] & 1L << old) != 0) {
+          nulls[slot >>> 6] |= 1L << slot;
+        }
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new String[capacity];
+    hashes = new int[capacity];
+    values = new int[capacity];
+    nulls = new long[Math.max(1, capacity >>> 6)];
+  }
+
+  private boolean isNullAt(int slot) {
+    return (nulls[slot >>> 6] & 1L << slot) != 0;
+  }
+
+  private void setNull(int slot) {
+    if (!isNullAt(slot)) {
+      nulls[slot >>> 6] |= 1L << slot;
+      nullCount++;
+    }
+  }
+
+  private void clearNull(int slot) {
+    if (isNullAt(slot)) {
+      nulls[slot >>> 6] &= ~(1L << slot);
+      nullCount--;
+    }
+  }
+
+  // String hashes differ mostly in their low bits only for short keys, spread them first.
+  private static int hash(String key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ h >>> 16;
+  }
+
+  private static int tableSizeFor(int expectedSize) {
+    int capacity = DEFAULT_CAPACITY;
+    while (capacity - (capacity >>> 2) < expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        if (builder.length() > 1) {
+          builder.append(", ");
+        }
+        builder.append(keys[slot]).append('=')
+            .append(isNullAt(slot) ? "null" : String.valueOf(values[slot]));
+      }
+    }
+    return builder.append('}').toString();
+  }
+}
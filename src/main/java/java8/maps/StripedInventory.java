@@ -0,0 +1,83 @@
+package java8.maps;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+// The concurrent form of inventory.merge(key, delta, Integer::sum): every key owns a LongAdder,
+// whose cells spread writers to a hot key over separate cache lines, and the map is only locked
+// the first time a key is seen. Reads add the cells up, so they are exact once writers are
+// quiescent and may miss in-flight deltas otherwise. Iteration is weakly consistent.
+public class StripedInventory {
+
+  private final ConcurrentMap<String, LongAdder> counters;
+
+  public StripedInventory() {
+    this.counters = new ConcurrentHashMap<>();
+  }
+
+  public StripedInventory(int expectedSize) {
+    this.counters = new ConcurrentHashMap<>(expectedSize);
+  }
+
+  public void add(String key, long delta) {
+    counter(key).add(delta);
+  }
+
+  public void increment(String key) {
+    counter(key).increment();
+  }
+
+  public long get(String key) {
+    return getOrDefault(key, 0);
+  }
+
+  public long getOrDefault(String key, long defaultValue) {
+    LongAdder counter = counters.get(key);
+    return counter == null ? defaultValue : counter.sum();
+  }
+
+  public boolean containsKey(String key) {
+    return counters.containsKey(key);
+  }
+
+  public int size() {
+    return counters.size();
+  }
+
+  // Returns the sum of the removed counter, deltas added concurrently with the removal may be
+  // lost with it.
+  public long remove(String key) {
+    LongAdder counter = counters.remove(key);
+    return counter == null ? 0 : counter.sum();
+  }
+
+  public long total() {
+    long total = 0;
+    for (LongAdder counter : counters.values()) {
+      total += counter.sum();
+    }
+    return total;
+  }
+
+  public void forEach(ObjLongConsumer<String> action) {
+    counters.forEach((key, counter) -> action.accept(key, counter.sum()));
+  }
+
+  public Map<String, Long> snapshot() {
+    Map<String, Long> snapshot = new HashMap<>(counters.size() * 4 / 3 + 1);
+    counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+    return snapshot;
+  }
+
+  // A plain get first: computeIfAbsent locks the bin even when the key is already there.
+  private LongAdder counter(String key) {
+    Objects.requireNonNull(key, "key");
+    LongAdder counter = counters.get(key);
+    return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+  }
+}
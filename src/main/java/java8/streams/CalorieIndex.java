@@ -0,0 +1,215 @@
+package java8.streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Dishes sorted by calories as a primitive int[] with a parallel array of positions, for the whole
+// catalog and per DishType. Added dishes are buffered and merged in on the next query, which
+// costs O(n + p log p) for p pending dishes instead of a full re-sort. Not thread-safe.
+public class CalorieIndex {
+
+  private final List<Dish> dishes = new ArrayList<>();
+  private final SortedColumn all = new SortedColumn();
+  private final Map<DishType, SortedColumn> byType = new EnumMap<>(DishType.class);
+
+  public CalorieIndex() {
+    for (DishType dishType : DishType.values()) {
+      byType.put(dishType, new SortedColumn());
+    }
+  }
+
+  public CalorieIndex(Collection<Dish> dishes) {
+    this();
+    dishes.forEach(this::add);
+  }
+
+  public void add(Dish dish) {
+    int position = dishes.size();
+    dishes.add(dish);
+    all.add(dish.getCalories(), position);
+    byType.get(dish.getDishType()).add(dish.getCalories(), position);
+  }
+
+  public int size() {
+    return dishes.size();
+  }
+
+  public int countBetween(int minCalories, int maxCalories) {
+    return all.countBetween(minCalories, maxCalories);
+  }
+
+  public int countBetween(DishType dishType, int minCalories, int maxCalories) {
+    return byType.get(dishType).countBetween(minCalories, maxCalories);
+  }
+
+  public Stream<Dish> between(int minCalories, int maxCalories) {
+    return all.between(minCalories, maxCalories);
+  }
+
+  public Stream<Dish> between(DishType dishType, int minCalories, int maxCalories) {
+    return byType.get(dishType).between(minCalories, maxCalories);
+  }
+
+  public OptionalInt minCalories() {
+    return all.min();
+  }
+
+  public OptionalInt minCalories(DishType dishType) {
+    return byType.get(dishType).min();
+  }
+
+  public OptionalInt maxCalories() {
+    return all.max();
+  }
+
+  public OptionalInt maxCalories(DishType dishType) {
+    return byType.get(dishType).max();
+  }
+
+  public Optional<Dish> lightest() {
+    return all.dishAt(0);
+  }
+
+  public Optional<Dish> heaviest() {
+    return all.dishAt(all.size() - 1);
+  }
+
+  public List<Dish> nearest(int calories, int k) {
+    return all.nearest(calories, k);
+  }
+
+  public List<Dish> nearest(DishType dishType, int calories, int k) {
+    return byType.get(dishType).nearest(calories, k);
+  }
+
+  private final class SortedColumn {
+
+    private int[] calories = new int[0];
+    private int[] positions = new int[0];
+    private long[] pending = new long[8];
+    private int pendingSize;
+
+    private void add(int dishCalories, int position) {
+      if (pendingSize == pending.length) {
+        pending = Arrays.copyOf(pending, pendingSize * 2);
+      }
+      // Calories in the high half, so sorting the packed longs sorts by calories then position.
+      pending[pendingSize++] = (long) dishCalories << 32 | position;
+    }
+
+    private int size() {
+      merge();
+      return calories.length;
+    }
+
+    private int countBetween(int minCalories, int maxCalories) {
+      merge();
+      if (minCalories > maxCalories) {
+        return 0;
+      }
+      return upperBound(maxCalories) - lowerBound(minCalories);
+    }
+
+    private Stream<Dish> between(int minCalories, int maxCalories) {
+      merge();
+      if (minCalories > maxCalories) {
+        return Stream.empty();
+      }
+      int[] positions = this.positions;
+      return IntStream.range(lowerBound(minCalories), upperBound(maxCalories))
+          .mapToObj(i -> dishes.get(positions[i]));
+    }
+
+    private OptionalInt min() {
+      merge();
+      return calories.length == 0 ? OptionalInt.empty() : OptionalInt.of(calories[0]);
+    }
+
+    private OptionalInt max() {
+      merge();
+      return calories.length == 0
+          ? OptionalInt.empty()
+          : OptionalInt.of(calories[calories.length - 1]);
+    }
+
+    private Optional<Dish> dishAt(int index) {
+      merge();
+      return index < 0 || index >= positions.length
+          ? Optional.empty()
+          : Optional.of(dishes.get(positions[index]));
+    }
+
+    // Expands outwards from the insertion point, preferring the lower calories on ties.
+    private List<Dish> nearest(int target, int k) {
+      merge();
+      List<Dish> result = new ArrayList<>(Math.min(k, calories.length));
+      int right = lowerBound(target);
+      int left = right - 1;
+      while (result.size() < k && (left >= 0 || right < calories.length)) {
+        boolean takeLeft = right >= calories.length
+            || left >= 0 && (long) target - calories[left] <= (long) calories[right] - target;
+        result.add(dishes.get(positions[takeLeft ? left-- : right++]));
+      }
+      return result;
+    }
+
+    private int lowerBound(int value) {
+      int low = 0;
+      int high = calories.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (calories[middle] < value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private int upperBound(int value) {
+      int low = 0;
+      int high = calories.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (calories[middle] <= value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private void merge() {
+      if (pendingSize == 0) {
+        return;
+      }
+      Arrays.sort(pending, 0, pendingSize);
+      int[] mergedCalories = new int[calories.length + pendingSize];
+      int[] mergedPositions = new int[mergedCalories.length];
+      int i = 0;
+      int j = 0;
+      for (int k = 0; k < mergedCalories.length; k++) {
+        if (j >= pendingSize || i < calories.length && calories[i] <= (int) (pending[j] >> 32)) {
+          mergedCalories[k] = calories[i];
+          mergedPositions[k] = positions[i++];
+        } else {
+          mergedCalories[k] = (int) (pending[j] >> 32);
+          mergedPositions[k] = (int) pending[j++];
+        }
+      }
+      calories = mergedCalories;
+      positions = mergedPositions;
+      pendingSize = 0;
+    }
+  }
+}
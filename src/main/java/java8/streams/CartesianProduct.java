@@ -0,0 +1,265 @@
+package java8.streams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Streams over every combination of the inputs, numbered by a linear index in row-major order.
+// Splits cut the linear range in half, so parallel streams share the whole product evenly
+// instead of one task per outer element, and each split finds its first combination with one
+// division per dimension and then steps like an odometer.
+public final class CartesianProduct {
+
+  private CartesianProduct() {
+  }
+
+  @FunctionalInterface
+  public interface IntPairConsumer {
+    void accept(int left, int right);
+  }
+
+  @FunctionalInterface
+  public interface LongPairConsumer {
+    void accept(long left, long right);
+  }
+
+  // The number of combinations, throws ArithmeticException when it does not fit in a long.
+  public static long size(int... lengths) {
+    long size = 1;
+    for (int length : lengths) {
+      if (length < 0) {
+        throw new IllegalArgumentException("Negative length: " + length);
+      }
+      size = Math.multiplyExact(size, length);
+    }
+    return size;
+  }
+
+  // Every (left[i], right[j]) packed in a long, read them back with left(pair) and right(pair).
+  public static LongStream pairs(int[] left, int[] right) {
+    return StreamSupport.longStream(
+        new PairSpliterator(i -> left[i], i -> right[i], right.length, 0,
+            (long) left.length * right.length), false);
+  }
+
+  // Every (i, j) with i < leftLength and j < rightLength, packed like pairs(int[], int[]).
+  public static LongStream indexPairs(int leftLength, int rightLength) {
+    return StreamSupport.longStream(
+        new PairSpliterator(i -> i, i -> i, rightLength, 0, size(leftLength, rightLength)), false);
+  }
+
+  public static long pack(int left, int right) {
+    return (long) left << 32 | right & 0xFFFFFFFFL;
+  }
+
+  public static int left(long pair) {
+    return (int) (pair >> 32);
+  }
+
+  public static int right(long pair) {
+    return (int) pair;
+  }
+
+  public static void forEachPair(int[] left, int[] right, IntPairConsumer action) {
+    for (int l : left) {
+      for (int r : right) {
+        action.accept(l, r);
+      }
+    }
+  }
+
+  public static void forEachPair(long[] left, long[] right, LongPairConsumer action) {
+    for (long l : left) {
+      for (long r : right) {
+        action.accept(l, r);
+      }
+    }
+  }
+
+  public static <A, B, R> Stream<R> pairs(List<A> left, List<B> right,
+      BiFunction<? super A, ? super B, ? extends R> combiner) {
+    return product(indices -> combiner.apply(left.get(indices[0]), right.get(indices[1])),
+        left.size(), right.size());
+  }
+
+  // One fresh index tuple per combination, tuple[d] indexing the d-th dimension.
+  public static Stream<int[]> indexTuples(int... lengths) {
+    return product(int[]::clone, lengths.clone());
+  }
+
+  // The lists must support fast random access and must not be modified while streamed.
+  public static <T> Stream<List<T>> tuples(List<? extends List<? extends T>> lists) {
+    int[] lengths = lists.stream().mapToInt(List::size).toArray();
+    return product(indices -> {
+      List<T> tuple = new ArrayList<>(indices.length);
+      for (int d = 0; d < indices.length; d++) {
+        tuple.add(lists.get(d).get(indices[d]));
+      }
+      return Collections.unmodifiableList(tuple);
+    }, lengths);
+  }
+
+  private static <T> Stream<T> product(Function<int[], ? extends T> mapper, int... lengths) {
+    return StreamSupport.stream(new TupleSpliterator<>(mapper, lengths, 0, size(lengths)), false);
+  }
+
+  private static final class PairSpliterator implements Spliterator.OfLong {
+
+    private final IntUnaryOperator left;
+    private final IntUnaryOperator right;
+    private final int rightLength;
+    private long origin;
+    private final long fence;
+
+    private PairSpliterator(IntUnaryOperator left, IntUnaryOperator right, int rightLength,
+        long origin, long fence) {
+      this.left = left;
+      this.right = right;
+      this.rightLength = rightLength;
+      this.origin = origin;
+      this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (origin >= fence) {
+        return false;
+      }
+      int i = (int) (origin / rightLength);
+      int j = (int) (origin % rightLength);
+      action.accept(pack(left.applyAsInt(i), right.applyAsInt(j)));
+      origin++;
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      if (origin >= fence) {
+        return;
+      }
+      int i = (int) (origin / rightLength);
+      int j = (int) (origin % rightLength);
+      long high = (long) left.applyAsInt(i) << 32;
+      for (long remaining = fence - origin; remaining > 0; remaining--) {
+        action.accept(high | right.applyAsInt(j) & 0xFFFFFFFFL);
+        if (++j == rightLength && remaining > 1) {
+          j = 0;
+          high = (long) left.applyAsInt(++i) << 32;
+        }
+      }
+      origin = fence;
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      long middle = (origin + fence) >>> 1;
+      if (middle <= origin) {
+        return null;
+      }
+      PairSpliterator prefix = new PairSpliterator(left, right, rightLength, origin, middle);
+      origin = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+      return SIZED | SUBSIZED | ORDERED | IMMUTABLE | NONNULL;
+    }
+  }
+
+  private static final class TupleSpliterator<T> implements Spliterator<T> {
+
+    private final Function<int[], ? extends T> mapper;
+    private final int[] lengths;
+    private long origin;
+    private final long fence;
+    private int[] indices;
+
+    private TupleSpliterator(Function<int[], ? extends T> mapper, int[] lengths, long origin,
+        long fence) {
+      this.mapper = mapper;
+      this.lengths = lengths;
+      this.origin = origin;
+      this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (origin >= fence) {
+        return false;
+      }
+      action.accept(mapper.apply(next()));
+      origin++;
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      for (; origin < fence; origin++) {
+        action.accept(mapper.apply(next()));
+      }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      long middle = (origin + fence) >>> 1;
+      if (middle <= origin) {
+        return null;
+      }
+      TupleSpliterator<T> prefix = new TupleSpliterator<>(mapper, lengths, origin, middle);
+      origin = middle;
+      indices = null;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+      return SIZED | SUBSIZED | ORDERED | IMMUTABLE;
+    }
+
+    // The indices of the combination at origin, reusing the previous ones when contiguous.
+    private int[] next() {
+      if (indices == null) {
+        indices = seek(origin);
+      } else {
+        increment(indices);
+      }
+      return indices;
+    }
+
+    private int[] seek(long linear) {
+      int[] indices = new int[lengths.length];
+      for (int d = lengths.length - 1; d >= 0; d--) {
+        indices[d] = (int) (linear % lengths[d]);
+        linear /= lengths[d];
+      }
+      return indices;
+    }
+
+    private void increment(int[] indices) {
+      int d = lengths.length - 1;
+      while (++indices[d] == lengths[d] && d > 0) {
+        indices[d--] = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package java8.streams;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// Streams the code points of many texts straight from their chars, without a String per
+// character, and dedups them in a bitmap for the BMP instead of a HashSet<Integer>.
+public final class CodePoints {
+
+  private CodePoints() {
+  }
+
+  public static IntStream of(CharSequence... texts) {
+    return of(Arrays.asList(texts));
+  }
+
+  // The list must support fast random access and must not be modified while streamed.
+  public static IntStream of(List<? extends CharSequence> texts) {
+    return StreamSupport.intStream(new TextsSpliterator(texts), false);
+  }
+
+  // Keeps the first occurrence of every code point, in encounter order. A sequential source is
+  // filtered lazily, a parallel one is deduped per split and the splits merged in order once
+  // the returned stream's terminal operation starts. Closing the result closes the source.
+  public static IntStream distinct(IntStream codePoints) {
+    if (codePoints.isParallel()) {
+      return StreamSupport.intStream(
+          () -> Arrays.spliterator(codePoints.collect(
+              DistinctBuffer::new, DistinctBuffer::add, DistinctBuffer::addAll).toArray()),
+          Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.IMMUTABLE,
+          true)
+          .onClose(codePoints::close);
+    }
+    return StreamSupport.intStream(new DistinctSpliterator(codePoints.spliterator()), false)
+        .onClose(codePoints::close);
+  }
+
+  private static final class CodePointSet {
+
+    private final long[] bmp = new long[(Character.MAX_VALUE + 1) >>> 6];
+    private Set<Integer> supplementary;
+
+    private boolean add(int codePoint) {
+      if (codePoint <= Character.MAX_VALUE) {
+        long bit = 1L << codePoint;
+        int word = codePoint >>> 6;
+        if ((bmp[word] & bit) != 0) {
+          return false;
+        }
+        bmp[word] |= bit;
+        return true;
+      }
+      if (supplementary == null) {
+        supplementary = new HashSet<>();
+      }
+      return supplementary.add(codePoint);
+    }
+
+    private boolean contains(int codePoint) {
+      if (codePoint <= Character.MAX_VALUE) {
+        return (bmp[codePoint >>> 6] & 1L << codePoint) != 0;
+      }
+      return supplementary != null && supplementary.contains(codePoint);
+    }
+  }
+
+  private static final class DistinctBuffer {
+
+    private final CodePointSet seen = new CodePointSet();
+    private int[] codePoints = new int[16];
+    private int size;
+
+    private void add(int codePoint) {
+      if (seen.add(codePoint)) {
+        if (size == codePoints.length) {
+          codePoints = Arrays.copyOf(codePoints, size * 2);
+        }
+        codePoints[size++] = codePoint;
+      }
+    }
+
+    private void addAll(DistinctBuffer other) {
+      for (int i = 0; i < other.size; i++) {
+        if (!seen.contains(other.codePoints[i])) {
+          add(other.codePoints[i]);
+        }
+      }
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(codePoints, size);
+    }
+  }
+
+  // Does not split, the set of code points seen so far is only meaningful in encounter order.
+  private static final class DistinctSpliterator implements Spliterator.OfInt {
+
+    private final Spliterator.OfInt source;
+    private final CodePointSet seen = new CodePointSet();
+    private int next;
+
+    private DistinctSpliterator(Spliterator.OfInt source) {
+      this.source = source;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      while (source.tryAdvance((int codePoint) -> next = codePoint)) {
+        if (seen.add(next)) {
+          action.accept(next);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      source.forEachRemaining((int codePoint) -> {
+        if (seen.add(codePoint)) {
+          action.accept(codePoint);
+        }
+      });
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      return source.characteristics() & (ORDERED | NONNULL | IMMUTABLE) | DISTINCT;
+    }
+  }
+
+  // Covers the chars from (index, position) to (endIndex, endPosition). Splits by halves of the
+  // remaining texts, and inside a single long text at a char that is not the middle of a
+  // surrogate pair.
+  private static final class TextsSpliterator implements Spliterator.OfInt {
+
+    private final List<? extends CharSequence> texts;
+    private int index;
+    private int position;
+    private final int endIndex;
+    private final int endPosition;
+    private long remainingChars;
+
+    private TextsSpliterator(List<? extends CharSequence> texts) {
+      this(texts, 0, 0, texts.size() - 1,
+          texts.isEmpty() ? 0 : texts.get(texts.size() - 1).length());
+    }
+
+    private TextsSpliterator(List<? extends CharSequence> texts, int index, int position,
+        int endIndex, int endPosition) {
+      this.texts = texts;
+      this.index = index;
+      this.position = position;
+      this.endIndex = endIndex;
+      this.endPosition = endPosition;
+      this.remainingChars = chars(index, position, endIndex, endPosition);
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      for (; index <= endIndex; index++, position = 0) {
+        CharSequence text = texts.get(index);
+        if (position < end(text)) {
+          int codePoint = Character.codePointAt(text, position);
+          int chars = Character.charCount(codePoint);
+          position += chars;
+          remainingChars -= chars;
+          action.accept(codePoint);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      for (; index <= endIndex; index++, position = 0) {
+        CharSequence text = texts.get(index);
+        int end = end(text);
+        int i = position;
+        while (i < end) {
+          char high = text.charAt(i++);
+          if (Character.isHighSurrogate(high) && i < end) {
+            char low = text.charAt(i);
+            if (Character.isLowSurrogate(low)) {
+              i++;
+              action.accept(Character.toCodePoint(high, low));
+              continue;
+            }
+          }
+          action.accept(high);
+        }
+      }
+      remainingChars = 0;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      if (index < endIndex) {
+        int middle = (index + endIndex) >>> 1;
+        TextsSpliterator prefix = new TextsSpliterator(
+            texts, index, position, middle, texts.get(middle).length());
+        index = middle + 1;
+        position = 0;
+        remainingChars -= prefix.remainingChars;
+        return prefix;
+      }
+      if (index > endIndex) {
+        return null;
+      }
+      CharSequence text = texts.get(index);
+      int middle = (position + endPosition) >>> 1;
+      if (middle > position && Character.isHighSurrogate(text.charAt(middle - 1))
+          && Character.isLowSurrogate(text.charAt(middle))) {
+        middle++;
+      }
+      if (middle <= position || middle >= endPosition) {
+        return null;
+      }
+      TextsSpliterator prefix = new TextsSpliterator(texts, index, position, index, middle);
+      position = middle;
+      remainingChars -= prefix.remainingChars;
+      return prefix;
+    }
+
+    // Counts chars, an upper bound of the code points left.
+    @Override
+    public long estimateSize() {
+      return remainingChars;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL;
+    }
+
+    private int end(CharSequence text) {
+      return index == endIndex ? endPosition : text.length();
+    }
+
+    private long chars(int index, int position, int endIndex, int endPosition) {
+      if (index > endIndex) {
+        return 0;
+      }
+      long chars = -position;
+      for (int i = index; i < endIndex; i++) {
+        chars += texts.get(i).length();
+      }
+      return chars + endPosition;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package java8.streams;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Column storage for large menus: 9 bytes per dish (name code, type ordinal, calories) plus a
+// shared table of distinct names. Dish objects are only created when a caller asks for one.
+public class CompactDishes {
+
+  private static final DishType[] DISH_TYPES = DishType.values();
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final NameDictionary names;
+  private int[] nameCodes;
+  private byte[] dishTypes;
+  private int[] calories;
+  private int size;
+
+  public CompactDishes() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public CompactDishes(int initialCapacity) {
+    this(new NameDictionary(), initialCapacity);
+  }
+
+  // Several catalogs may share one dictionary, e.g. one catalog per regional menu.
+  public CompactDishes(NameDictionary names, int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+    }
+    this.names = names;
+    this.nameCodes = new int[initialCapacity];
+    this.dishTypes = new byte[initialCapacity];
+    this.calories = new int[initialCapacity];
+  }
+
+  public static CompactDishes of(Collection<Dish> dishes) {
+    CompactDishes compact = new CompactDishes(dishes.size());
+    dishes.forEach(compact::add);
+    return compact;
+  }
+
+  public void add(Dish dish) {
+    add(dish.getName(), dish.getCalories(), dish.getDishType());
+  }
+
+  public void add(String name, int calories, DishType dishType) {
+    if (size == this.calories.length) {
+      grow();
+    }
+    nameCodes[size] = names.encode(name);
+    dishTypes[size] = (byte) dishType.ordinal();
+    this.calories[size] = calories;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public NameDictionary getNames() {
+    return names;
+  }
+
+  public String getName(int index) {
+    checkIndex(index);
+    return names.decode(nameCodes[index]);
+  }
+
+  public int getNameCode(int index) {
+    checkIndex(index);
+    return nameCodes[index];
+  }
+
+  public DishType getDishType(int index) {
+    checkIndex(index);
+    return DISH_TYPES[dishTypes[index]];
+  }
+
+  public int getCalories(int index) {
+    checkIndex(index);
+    return calories[index];
+  }
+
+  public Dish get(int index) {
+    checkIndex(index);
+    return new Dish(names.decode(nameCodes[index]), calories[index], DISH_TYPES[dishTypes[index]]);
+  }
+
+  public Stream<Dish> stream() {
+    return IntStream.range(0, size).mapToObj(this::get);
+  }
+
+  // Views are bound to the arrays at call time, appends made afterwards are not visible.
+  public IntStream calories() {
+    return Arrays.stream(calories, 0, size);
+  }
+
+  public IntStream calories(DishType dishType) {
+    byte ordinal = (byte) dishType.ordinal();
+    byte[] dishTypes = this.dishTypes;
+    int[] calories = this.calories;
+    return IntStream.range(0, size)
+        .filter(i -> dishTypes[i] == ordinal)
+        .map(i -> calories[i]);
+  }
+
+  public long count(DishType dishType) {
+    byte ordinal = (byte) dishType.ordinal();
+    long count = 0;
+    for (int i = 0; i < size; i++) {
+      if (dishTypes[i] == ordinal) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void grow() {
+    int capacity = Math.max(DEFAULT_CAPACITY, calories.length + (calories.length >> 1));
+    nameCodes = Arrays.copyOf(nameCodes, capacity);
+    dishTypes = Arrays.copyOf(dishTypes, capacity);
+    calories = Arrays.copyOf(calories, capacity);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
@@ -4,7 +4,7 @@ public class Dish {
 
   private final String name;
   private final int calories;
-  private DishType dishType;
+  private final DishType dishType;
 
 
   public Dish(String name, int calories, DishType dishType) {
@@ -0,0 +1,125 @@
+package java8.streams;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Keeps one bit per dish for every DishType and built-in predicate, so combined filters are
+// word-wise AND/OR/NOT and counts come from popcounts instead of calling each Dish.
+public class DishCatalog {
+
+  private final List<Dish> dishes = new ArrayList<>();
+  private final BitSet[] byType = new BitSet[DishType.values().length];
+  private final BitSet lowCalories = new BitSet();
+  private final BitSet healthy = new BitSet();
+
+  public DishCatalog() {
+    for (int i = 0; i < byType.length; i++) {
+      byType[i] = new BitSet();
+    }
+  }
+
+  public DishCatalog(Collection<Dish> dishes) {
+    this();
+    dishes.forEach(this::add);
+  }
+
+  public void add(Dish dish) {
+    int index = dishes.size();
+    dishes.add(dish);
+    byType[dish.getDishType().ordinal()].set(index);
+    if (dish.isLowCalories()) {
+      lowCalories.set(index);
+    }
+    if (dish.isHealthy()) {
+      healthy.set(index);
+    }
+  }
+
+  public int size() {
+    return dishes.size();
+  }
+
+  public Dish get(int index) {
+    return dishes.get(index);
+  }
+
+  public Selection all() {
+    BitSet all = new BitSet(dishes.size());
+    all.set(0, dishes.size());
+    return new Selection(all, dishes.size());
+  }
+
+  public Selection ofType(DishType dishType) {
+    return new Selection((BitSet) byType[dishType.ordinal()].clone(), dishes.size());
+  }
+
+  public Selection lowCalories() {
+    return new Selection((BitSet) lowCalories.clone(), dishes.size());
+  }
+
+  public Selection healthy() {
+    return new Selection((BitSet) healthy.clone(), dishes.size());
+  }
+
+  // A snapshot of matching positions among the first size dishes, dishes added to the catalog
+  // afterwards are not included, not even by negate(). Combined selections cover both ranges.
+  public final class Selection {
+
+    private final BitSet bits;
+    private final int size;
+
+    private Selection(BitSet bits, int size) {
+      this.bits = bits;
+      this.size = size;
+    }
+
+    public Selection and(Selection other) {
+      BitSet result = (BitSet) bits.clone();
+      result.and(other.bits);
+      return new Selection(result, Math.max(size, other.size));
+    }
+
+    public Selection or(Selection other) {
+      BitSet result = (BitSet) bits.clone();
+      result.or(other.bits);
+      return new Selection(result, Math.max(size, other.size));
+    }
+
+    public Selection andNot(Selection other) {
+      BitSet result = (BitSet) bits.clone();
+      result.andNot(other.bits);
+      return new Selection(result, Math.max(size, other.size));
+    }
+
+    public Selection negate() {
+      BitSet result = (BitSet) bits.clone();
+      result.flip(0, size);
+      return new Selection(result, size);
+    }
+
+    public int count() {
+      return bits.cardinality();
+    }
+
+    public boolean anyMatch() {
+      return !bits.isEmpty();
+    }
+
+    public Optional<Dish> findFirst() {
+      int index = bits.nextSetBit(0);
+      return index < 0 ? Optional.empty() : Optional.of(dishes.get(index));
+    }
+
+    public Optional<Dish> findAny() {
+      return findFirst();
+    }
+
+    public Stream<Dish> stream() {
+      return bits.stream().mapToObj(dishes::get);
+    }
+  }
+}
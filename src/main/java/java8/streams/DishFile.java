@@ -0,0 +1,284 @@
+package java8.streams;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Layout (little endian): int magic, int version, int dish count, int name count, long CRC32 of
+// everything after the header, then the columns: name offsets (name count + 1 ints into the
+// string data), name codes and calories (one int per dish), dish type ordinals (one byte per dish)
+// and the UTF-8 string data. Opening maps the file and checks only the header, so it touches
+// no column pages: the checksum is only computed by verify(), and corrupt values are reported
+// when read. Names are decoded on first use.
+public final class DishFile {
+
+  static final int MAGIC = 0x31485344;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 24;
+
+  private static final DishType[] DISH_TYPES = DishType.values();
+  private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int nameOffsets;
+  private final int nameCodes;
+  private final int calories;
+  private final int dishTypes;
+  private final int strings;
+  private final String[] names;
+
+  // Only called once open() has checked that every column fits in the file, so no offset
+  // overflows an int.
+  private DishFile(ByteBuffer buffer, int size, int nameCount) {
+    this.buffer = buffer;
+    this.size = size;
+    this.nameOffsets = HEADER_BYTES;
+    this.nameCodes = nameOffsets + 4 * nameCount + 4;
+    this.calories = nameCodes + 4 * size;
+    this.dishTypes = calories + 4 * size;
+    this.strings = dishTypes + size;
+    this.names = new String[nameCount];
+  }
+
+  public static void write(Path path, Collection<Dish> dishes) throws IOException {
+    write(path, CompactDishes.of(dishes));
+  }
+
+  public static void write(Path path, CompactDishes dishes) throws IOException {
+    NameDictionary dictionary = dishes.getNames();
+    byte[][] names = new byte[dictionary.size()][];
+    for (int code = 0; code < names.length; code++) {
+      names[code] = dictionary.decode(code).getBytes(UTF_8);
+    }
+    try (ColumnWriter writer = new ColumnWriter(path, dishes.size(), names.length)) {
+      int offset = 0;
+      writer.putInt(offset);
+      for (byte[] name : names) {
+        offset += name.length;
+        writer.putInt(offset);
+      }
+      for (int i = 0; i < dishes.size(); i++) {
+        writer.putInt(dishes.getNameCode(i));
+      }
+      for (int i = 0; i < dishes.size(); i++) {
+        writer.putInt(dishes.getCalories(i));
+      }
+      for (int i = 0; i < dishes.size(); i++) {
+        writer.put((byte) dishes.getDishType(i).ordinal());
+      }
+      for (byte[] name : names) {
+        writer.put(name);
+      }
+    }
+  }
+
+  public static DishFile open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+        throw new IOException("Invalid dish file size: " + fileSize);
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException("Not a dish file: " + path);
+      }
+      if (buffer.getInt(4) != VERSION) {
+        throw new IOException("Unsupported dish file version: " + buffer.getInt(4));
+      }
+      int size = buffer.getInt(8);
+      int nameCount = buffer.getInt(12);
+      long columnBytes = 4L * ((long) nameCount + 1) + 9L * size;
+      if (size < 0 || nameCount < 0 || HEADER_BYTES + columnBytes > fileSize) {
+        throw new IOException("Truncated dish file: " + path);
+      }
+      DishFile file = new DishFile(buffer, size, nameCount);
+      if (file.strings + (long) file.nameOffset(nameCount) != fileSize) {
+        throw new IOException("Truncated dish file: " + path);
+      }
+      return file;
+    }
+  }
+
+  // Reads every page of the file once, use it when a corrupt file must fail up front.
+  public DishFile verify() throws IOException {
+    if (checksum(buffer) != buffer.getLong(16)) {
+      throw new IOException("Corrupt dish file, checksum mismatch");
+    }
+    return this;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int nameCount() {
+    return names.length;
+  }
+
+  public int getNameCode(int index) {
+    return buffer.getInt(nameCodes + 4 * checkIndex(index));
+  }
+
+  public String getName(int index) {
+    return decodeName(getNameCode(index));
+  }
+
+  public int getCalories(int index) {
+    return buffer.getInt(calories + 4 * checkIndex(index));
+  }
+
+  public DishType getDishType(int index) {
+    int ordinal = buffer.get(dishTypes + checkIndex(index));
+    if (ordinal < 0 || ordinal >= DISH_TYPES.length) {
+      throw new IllegalStateException(
+          "Corrupt dish file, unknown dish type ordinal " + ordinal + " for dish " + index);
+    }
+    return DISH_TYPES[ordinal];
+  }
+
+  public Dish get(int index) {
+    return new Dish(getName(index), getCalories(index), getDishType(index));
+  }
+
+  // Splits evenly on dish boundaries when run in parallel.
+  public Stream<Dish> stream() {
+    return IntStream.range(0, size).mapToObj(this::get);
+  }
+
+  public IntStream calories() {
+    return IntStream.range(0, size).map(i -> buffer.getInt(calories + 4 * i));
+  }
+
+  public CompactDishes toCompactDishes() {
+    CompactDishes dishes = new CompactDishes(size);
+    for (int i = 0; i < size; i++) {
+      dishes.add(getName(i), getCalories(i), getDishType(i));
+    }
+    return dishes;
+  }
+
+  // Racing readers may both decode a name, they store equal strings.
+  private String decodeName(int code) {
+    if (code < 0 || code >= names.length) {
+      throw new IllegalStateException("Corrupt dish file, unknown name code " + code);
+    }
+    String name = names[code];
+    if (name == null) {
+      int start = nameOffset(code);
+      int end = nameOffset(code + 1);
+      if (start < 0 || start > end || end > buffer.limit() - strings) {
+        throw new IllegalStateException("Corrupt dish file, invalid offsets for name " + code);
+      }
+      byte[] bytes = new byte[end - start];
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(strings + start);
+      slice.get(bytes);
+      name = new String(bytes, UTF_8);
+      names[code] = name;
+    }
+    return name;
+  }
+
+  private int nameOffset(int code) {
+    return buffer.getInt(nameOffsets + 4 * code);
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return index;
+  }
+
+  private static long checksum(ByteBuffer buffer) {
+    ByteBuffer body = buffer.duplicate();
+    body.position(HEADER_BYTES);
+    CRC32 crc = new CRC32();
+    crc.update(body);
+    return crc.getValue();
+  }
+
+  // Streams the columns after a blank header, then writes the header once the checksum is known.
+  private static final class ColumnWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final int size;
+    private final int nameCount;
+
+    private ColumnWriter(Path path, int size, int nameCount) throws IOException {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+      this.buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      this.size = size;
+      this.nameCount = nameCount;
+      channel.position(HEADER_BYTES);
+    }
+
+    private void putInt(int value) throws IOException {
+      if (buffer.remaining() < 4) {
+        flush();
+      }
+      buffer.putInt(value);
+    }
+
+    private void put(byte value) throws IOException {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      buffer.put(value);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(nameCount)
+            .putLong(crc.getValue());
+        header.flip();
+        for (long position = 0; header.hasRemaining(); ) {
+          position += channel.write(header, position);
+        }
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
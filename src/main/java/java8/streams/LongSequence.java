@@ -0,0 +1,378 @@
+package java8.streams;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// An indexed sequence of longs: get(n) computes any term directly, iterators positioned at an
+// index step from there in O(1), so streams over [from, to) never generate the skipped prefix and
+// parallel splits start right where they begin. Terms that do not fit in a long are an error.
+public abstract class LongSequence {
+
+  public static final long UNBOUNDED = Long.MAX_VALUE;
+
+  // F(92) is the last Fibonacci number that fits in a long.
+  private static final long FIBONACCI_SIZE = 93;
+  private static final LongSequence FIBONACCI = new Fibonacci();
+
+  public static LongSequence fibonacci() {
+    return FIBONACCI;
+  }
+
+  public static LongSequence arithmetic(long first, long difference) {
+    return new Arithmetic(first, difference);
+  }
+
+  public static LongSequence geometric(long first, long ratio) {
+    return new Geometric(first, ratio);
+  }
+
+  // The number of terms, UNBOUNDED for endless sequences.
+  public abstract long size();
+
+  public abstract long get(long index);
+
+  public abstract PrimitiveIterator.OfLong iterator(long fromIndex);
+
+  public PrimitiveIterator.OfLong iterator() {
+    return iterator(0);
+  }
+
+  // Endless sequences give an endless stream that does not split, use stream(from, to) to work
+  // on a slice in parallel.
+  public LongStream stream() {
+    return stream(0, size());
+  }
+
+  public LongStream stream(long fromIndex, long toIndex) {
+    return StreamSupport.longStream(spliterator(fromIndex, toIndex), false);
+  }
+
+  public Spliterator.OfLong spliterator(long fromIndex, long toIndex) {
+    if (fromIndex < 0 || fromIndex > toIndex || toIndex > size()) {
+      throw new IndexOutOfBoundsException(
+          "From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+    }
+    return new SequenceSpliterator(this, fromIndex, toIndex);
+  }
+
+  // Caches the first terms in a table computed once on first use and shared by every reader of
+  // the returned sequence, terms past the table are computed as before.
+  public LongSequence memoize(int terms) {
+    if (terms < 0 || terms > size()) {
+      throw new IllegalArgumentException("Cannot memoize " + terms + " terms of " + size());
+    }
+    return new Memoized(this, terms);
+  }
+
+  void checkIndex(long index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+  }
+
+  private static final class Fibonacci extends LongSequence {
+
+    @Override
+    public long size() {
+      return FIBONACCI_SIZE;
+    }
+
+    @Override
+    public long get(long index) {
+      checkIndex(index);
+      return fastDoubling(index, false);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator(long fromIndex) {
+      return new PrimitiveIterator.OfLong() {
+
+        private long index = fromIndex;
+        private long current = fromIndex < FIBONACCI_SIZE ? fastDoubling(fromIndex, false) : 0;
+        private long next = fromIndex < FIBONACCI_SIZE ? fastDoubling(fromIndex, true) : 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < FIBONACCI_SIZE;
+        }
+
+        @Override
+        public long nextLong() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          long result = current;
+          // F(93) wraps around here but is never returned.
+          current = next;
+          next += result;
+          index++;
+          return result;
+        }
+      };
+    }
+
+    // F(2k) = F(k) * (2F(k+1) - F(k)) and F(2k+1) = F(k)^2 + F(k+1)^2, walking the bits of n
+    // from the top. Arithmetic wraps modulo 2^64, which leaves every term that fits exact.
+    private static long fastDoubling(long n, boolean successor) {
+      long a = 0;
+      long b = 1;
+      for (int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--) {
+        long c = a * (2 * b - a);
+        long d = a * a + b * b;
+        if ((n >>> bit & 1) == 0) {
+          a = c;
+          b = d;
+        } else {
+          a = d;
+          b = c + d;
+        }
+      }
+      return successor ? b : a;
+    }
+  }
+
+  private static final class Arithmetic extends LongSequence {
+
+    private final long first;
+    private final long difference;
+
+    private Arithmetic(long first, long difference) {
+      this.first = first;
+      this.difference = difference;
+    }
+
+    @Override
+    public long size() {
+      return UNBOUNDED;
+    }
+
+    @Override
+    public long get(long index) {
+      checkIndex(index);
+      return Math.addExact(first, Math.multiplyExact(index, difference));
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator(long fromIndex) {
+      return new PrimitiveIterator.OfLong() {
+
+        private long index = fromIndex;
+        private long value;
+
+        @Override
+        public boolean hasNext() {
+          return index < UNBOUNDED;
+        }
+
+        @Override
+        public long nextLong() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          value = index == fromIndex ? get(index) : Math.addExact(value, difference);
+          index++;
+          return value;
+        }
+      };
+    }
+  }
+
+  private static final class Geometric extends LongSequence {
+
+    private final long first;
+    private final long ratio;
+
+    private Geometric(long first, long ratio) {
+      this.first = first;
+      this.ratio = ratio;
+    }
+
+    @Override
+    public long size() {
+      return UNBOUNDED;
+    }
+
+    @Override
+    public long get(long index) {
+      checkIndex(index);
+      if (first == 0) {
+        return 0;
+      }
+      long result = first;
+      long power = ratio;
+      for (long n = index; n > 0; n >>>= 1) {
+        if ((n & 1) == 1) {
+          result = Math.multiplyExact(result, power);
+        }
+        if (n > 1) {
+          power = Math.multiplyExact(power, power);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator(long fromIndex) {
+      return new PrimitiveIterator.OfLong() {
+
+        private long index = fromIndex;
+        private long value;
+
+        @Override
+        public boolean hasNext() {
+          return index < UNBOUNDED;
+        }
+
+        @Override
+        public long nextLong() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          value = index == fromIndex ? get(index) : Math.multiplyExact(value, ratio);
+          index++;
+          return value;
+        }
+      };
+    }
+  }
+
+  private static final class Memoized extends LongSequence {
+
+    private final LongSequence sequence;
+    private final int terms;
+    private volatile long[] table;
+
+    private Memoized(LongSequence sequence, int terms) {
+      this.sequence = sequence;
+      this.terms = terms;
+    }
+
+    @Override
+    public long size() {
+      return sequence.size();
+    }
+
+    @Override
+    public long get(long index) {
+      return index >= 0 && index < terms ? table()[(int) index] : sequence.get(index);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator(long fromIndex) {
+      if (fromIndex >= terms) {
+        return sequence.iterator(fromIndex);
+      }
+      long[] table = table();
+      return new PrimitiveIterator.OfLong() {
+
+        private long index = fromIndex;
+        private PrimitiveIterator.OfLong rest;
+
+        @Override
+        public boolean hasNext() {
+          return index < terms || rest().hasNext();
+        }
+
+        @Override
+        public long nextLong() {
+          return index < terms ? table[(int) index++] : rest().nextLong();
+        }
+
+        private PrimitiveIterator.OfLong rest() {
+          if (rest == null) {
+            rest = sequence.iterator(terms);
+          }
+          return rest;
+        }
+      };
+    }
+
+    private long[] table() {
+      long[] table = this.table;
+      if (table == null) {
+        synchronized (this) {
+          table = this.table;
+          if (table == null) {
+            table = new long[terms];
+            PrimitiveIterator.OfLong iterator = sequence.iterator();
+            for (int i = 0; i < terms; i++) {
+              table[i] = iterator.nextLong();
+            }
+            this.table = table;
+          }
+        }
+      }
+      return table;
+    }
+  }
+
+  // Splits bounded ranges exactly in half, each half positioning its own iterator at its start.
+  private static final class SequenceSpliterator implements Spliterator.OfLong {
+
+    private final LongSequence sequence;
+    private long origin;
+    private final long fence;
+    private PrimitiveIterator.OfLong iterator;
+
+    private SequenceSpliterator(LongSequence sequence, long origin, long fence) {
+      this.sequence = sequence;
+      this.origin = origin;
+      this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (origin >= fence) {
+        return false;
+      }
+      action.accept(iterator().nextLong());
+      origin++;
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      PrimitiveIterator.OfLong iterator = iterator();
+      for (; origin < fence; origin++) {
+        action.accept(iterator.nextLong());
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      if (fence == UNBOUNDED) {
+        return null;
+      }
+      long middle = (origin + fence) >>> 1;
+      if (middle <= origin) {
+        return null;
+      }
+      SequenceSpliterator prefix = new SequenceSpliterator(sequence, origin, middle);
+      origin = middle;
+      iterator = null;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+      int characteristics = ORDERED | IMMUTABLE | NONNULL;
+      return fence == UNBOUNDED ? characteristics : characteristics | SIZED | SUBSIZED;
+    }
+
+    private PrimitiveIterator.OfLong iterator() {
+      if (iterator == null) {
+        iterator = sequence.iterator(origin);
+      }
+      return iterator;
+    }
+  }
+}
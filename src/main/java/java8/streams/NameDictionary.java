@@ -0,0 +1,31 @@
+package java8.streams;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hands out one int code per distinct name, so repeated names are stored once.
+public class NameDictionary {
+
+  private final Map<String, Integer> codes = new HashMap<>();
+  private final List<String> names = new ArrayList<>();
+
+  public int encode(String name) {
+    Integer code = codes.get(name);
+    if (code == null) {
+      code = names.size();
+      codes.put(name, code);
+      names.add(name);
+    }
+    return code;
+  }
+
+  public String decode(int code) {
+    return names.get(code);
+  }
+
+  public int size() {
+    return names.size();
+  }
+}
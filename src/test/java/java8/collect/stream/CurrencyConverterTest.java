@@ -0,0 +1,126 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CurrencyConverterTest {
+
+  private CurrencyConverter converter;
+  private TransactionLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    converter = new CurrencyConverter();
+    converter.setRate(MAD, EUR, 0.1);
+    converter.setRate(USD, EUR, 0.9);
+    ledger = TransactionLedger.of(asList(
+        new Transaction(MAD, 100.5),
+        new Transaction(USD, 50),
+        new Transaction(EUR, 30),
+        new Transaction(EUR, 5.2),
+        new Transaction(MAD, 300.7)
+    ));
+  }
+
+  @Test
+  void should_convert_single_amounts() {
+    assertThat(converter.convert(100, MAD, EUR)).isCloseTo(10, within(1e-9));
+    assertThat(converter.convert(10, EUR, MAD)).isCloseTo(100, within(1e-9));
+    assertThat(converter.convert(42, USD, USD)).isEqualTo(42);
+
+    Transaction converted = converter.convert(new Transaction(USD, 50), EUR);
+    assertThat(converted.getCurrency()).isEqualTo(EUR);
+    assertThat(converted.getAmount()).isCloseTo(45, within(1e-9));
+  }
+
+  @Test
+  void should_sum_all_transactions_in_a_single_currency() {
+    assertThat(converter.total(ledger, EUR)).isCloseTo(40.12 + 45 + 35.2, within(1e-9));
+    assertThat(converter.total(ledger, EUR)).isCloseTo(
+        ledger.stream().mapToDouble(transaction -> converter.convert(transaction, EUR).getAmount())
+            .sum(),
+        within(1e-9));
+  }
+
+  @Test
+  void should_convert_a_whole_ledger() {
+    double[] converted = converter.convert(ledger, EUR);
+    assertThat(converted).containsExactly(new double[]{10.05, 45, 30, 5.2, 30.07}, within(1e-9));
+  }
+
+  @Test
+  void should_convert_amount_streams() {
+    double sum = converter.convert(DoubleStream.of(100, 200), MAD, EUR).sum();
+    assertThat(sum).isCloseTo(30, within(1e-9));
+  }
+
+  @Test
+  void should_swap_whole_rate_matrix() {
+    double[][] rates = new double[3][3];
+    rates[MAD.ordinal()][EUR.ordinal()] = 0.2;
+    rates[USD.ordinal()][EUR.ordinal()] = 1;
+    rates[EUR.ordinal()][MAD.ordinal()] = 5;
+    converter.setRates(rates);
+    rates[MAD.ordinal()][EUR.ordinal()] = 100;
+
+    assertThat(converter.getRate(MAD, EUR)).isEqualTo(0.2);
+    assertThat(converter.getRate(EUR, EUR)).isEqualTo(1);
+    assertThatThrownBy(() -> converter.getRate(USD, MAD))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("No rate from USD to MAD");
+  }
+
+  @Test
+  void should_reject_invalid_rate_matrices() {
+    for (double invalid : new double[] {-1, Double.POSITIVE_INFINITY}) {
+      double[][] rates = new double[3][3];
+      rates[MAD.ordinal()][EUR.ordinal()] = invalid;
+      assertThatThrownBy(() -> converter.setRates(rates))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Invalid rate from MAD to EUR: " + invalid);
+    }
+    assertThatThrownBy(() -> converter.setRates(new double[2][3]))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> converter.setRates(new double[3][4]))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(converter.getRate(MAD, EUR)).isEqualTo(0.1);
+  }
+
+  @Test
+  void should_fail_on_missing_rates() {
+    CurrencyConverter converter = new CurrencyConverter();
+    converter.setRate(MAD, EUR, 0.1);
+    assertThatThrownBy(() -> converter.total(ledger, EUR))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("No rate from USD to EUR");
+    assertThatThrownBy(() -> converter.setRate(MAD, USD, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> converter.setRate(MAD, MAD, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid rate from MAD to MAD: 2.0");
+    converter.setRate(MAD, MAD, 1);
+  }
+
+  @Test
+  void should_fail_on_missing_rates_even_when_amounts_cancel_out() {
+    TransactionLedger cancelling = TransactionLedger.of(asList(
+        new Transaction(USD, 5), new Transaction(USD, -5), new Transaction(MAD, 10)));
+    CurrencyConverter converter = new CurrencyConverter();
+    converter.setRate(MAD, EUR, 0.1);
+    assertThatThrownBy(() -> converter.total(cancelling, EUR))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("No rate from USD to EUR");
+    assertThatThrownBy(() -> converter.convert(cancelling, EUR))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("No rate from USD to EUR");
+  }
+}
@@ -0,0 +1,111 @@
+package java8.collect.stream;
+
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class CurrencyStatisticsTest {
+
+  @Test
+  void should_summarize_transactions_by_currency() {
+    CurrencyStatistics statistics = new CurrencyStatistics();
+    Stream.of(
+        new Transaction(MAD, 100.5),
+        new Transaction(USD, 50),
+        new Transaction(EUR, 30),
+        new Transaction(EUR, 5.2),
+        new Transaction(MAD, 300.7)
+    ).forEach(statistics);
+
+    DoubleSummaryStatistics mad = statistics.snapshot(MAD);
+    assertThat(mad.getCount()).isEqualTo(2);
+    assertThat(mad.getSum()).isEqualTo(401.2);
+    assertThat(mad.getMin()).isEqualTo(100.5);
+    assertThat(mad.getMax()).isEqualTo(300.7);
+    assertThat(mad.getAverage()).isEqualTo(200.6);
+
+    EnumMap<Currency, DoubleSummaryStatistics> snapshot = statistics.snapshot();
+    assertThat(snapshot).containsOnlyKeys(MAD, USD, EUR);
+    assertThat(snapshot.get(EUR).getMin()).isEqualTo(5.2);
+    assertThat(snapshot.get(USD).getAverage()).isEqualTo(50);
+  }
+
+  @Test
+  void should_report_empty_statistics_like_summarizing_double() {
+    DoubleSummaryStatistics empty = new CurrencyStatistics(1).snapshot(USD);
+    DoubleSummaryStatistics expected = new DoubleSummaryStatistics();
+    assertThat(empty.getCount()).isEqualTo(expected.getCount());
+    assertThat(empty.getMin()).isEqualTo(expected.getMin());
+    assertThat(empty.getMax()).isEqualTo(expected.getMax());
+    assertThat(empty.getAverage()).isEqualTo(expected.getAverage());
+  }
+
+  @Test
+  void should_detach_snapshots_from_live_statistics() {
+    CurrencyStatistics statistics = new CurrencyStatistics();
+    statistics.accept(MAD, 10);
+    DoubleSummaryStatistics snapshot = statistics.snapshot(MAD);
+    snapshot.accept(1000);
+    statistics.accept(MAD, 20);
+
+    assertThat(snapshot.getCount()).isEqualTo(2);
+    assertThat(statistics.snapshot(MAD).getMax()).isEqualTo(20);
+  }
+
+  @Test
+  void should_accept_transactions_from_many_threads() throws Exception {
+    assertAcceptsFromManyThreads(new CurrencyStatistics(4));
+  }
+
+  @Test
+  void should_accept_transactions_from_more_threads_than_stripes() throws Exception {
+    assertAcceptsFromManyThreads(new CurrencyStatistics(1));
+  }
+
+  private void assertAcceptsFromManyThreads(CurrencyStatistics statistics) throws Exception {
+    int threads = 8;
+    int perThread = 50_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 1; i <= perThread; i++) {
+          statistics.accept(USD, i);
+          DoubleSummaryStatistics live = statistics.snapshot(USD);
+          if (live.getCount() > 0 && live.getMax() > live.getSum()) {
+            throw new AssertionError("Inconsistent snapshot " + live);
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    DoubleSummaryStatistics usd = statistics.snapshot(USD);
+    assertThat(usd.getCount()).isEqualTo((long) threads * perThread);
+    assertThat(usd.getSum()).isEqualTo(threads * (perThread * (perThread + 1.0) / 2));
+    assertThat(usd.getMin()).isEqualTo(1);
+    assertThat(usd.getMax()).isEqualTo(perThread);
+    assertThat(statistics.snapshot(MAD).getCount()).isZero();
+  }
+}
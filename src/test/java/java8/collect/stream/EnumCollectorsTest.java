@@ -0,0 +1,172 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.groupingBy;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static java8.collect.stream.EnumCollectors.countingByEnum;
+import static java8.collect.stream.EnumCollectors.groupingByEnum;
+import static java8.collect.stream.EnumCollectors.groupingByEnumConcurrent;
+import static java8.collect.stream.EnumCollectors.maxByEnum;
+import static java8.collect.stream.EnumCollectors.summingByEnum;
+import static java8.collect.stream.EnumCollectors.summingIntByEnum;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EnumCollectorsTest {
+
+  private Transaction mad1;
+  private Transaction usd;
+  private Transaction eur1;
+  private Transaction eur2;
+  private Transaction mad2;
+  private List<Transaction> transactions;
+
+  @BeforeEach
+  void setUp() {
+    mad1 = new Transaction(MAD, 100.5);
+    usd = new Transaction(USD, 50);
+    eur1 = new Transaction(EUR, 30);
+    eur2 = new Transaction(EUR, 5.2);
+    mad2 = new Transaction(MAD, 300.7);
+    transactions = asList(mad1, usd, eur1, eur2, mad2);
+  }
+
+  @Test
+  void should_group_transactions_by_currency() {
+    EnumMap<Currency, List<Transaction>> transactionsByCurrency = transactions.stream()
+        .collect(groupingByEnum(Currency.class, Transaction::getCurrency));
+    assertThat(transactionsByCurrency)
+        .hasSize(3)
+        .containsKeys(MAD, USD, EUR);
+    assertThat(transactionsByCurrency.get(MAD)).containsExactly(mad1, mad2);
+    assertThat(transactionsByCurrency.get(EUR)).containsExactly(eur1, eur2);
+    assertThat(transactionsByCurrency.get(USD)).containsExactly(usd);
+  }
+
+  @Test
+  void should_multi_level_group_transaction_with_downstream() {
+    Map<Currency, Map<Boolean, List<Transaction>>> grouped = transactions.stream()
+        .collect(groupingByEnum(Currency.class, Transaction::getCurrency,
+            groupingBy(Transaction::isExpensive)));
+    assertThat(grouped.get(MAD).get(true)).containsExactly(mad1, mad2);
+    assertThat(grouped.get(EUR).get(false)).containsExactly(eur1, eur2);
+    assertThat(grouped.get(USD)).containsOnlyKeys(true);
+  }
+
+  @Test
+  void should_count_transactions_by_currency() {
+    EnumMap<Currency, Long> counts = transactions.stream()
+        .collect(countingByEnum(Currency.class, Transaction::getCurrency));
+    assertThat(counts).isEqualTo(transactions.stream()
+        .collect(groupingBy(Transaction::getCurrency, Collectors.counting())));
+  }
+
+  @Test
+  void should_sum_transactions_amounts_by_currency() {
+    EnumMap<Currency, Double> sums = transactions.stream()
+        .collect(summingByEnum(Currency.class, Transaction::getCurrency, Transaction::getAmount));
+    assertThat(sums)
+        .containsEntry(MAD, 401.2)
+        .containsEntry(USD, 50.0)
+        .containsEntry(EUR, 35.2);
+  }
+
+  @Test
+  void should_sum_like_summing_double_where_naive_summation_drifts() {
+    List<Transaction> drifting = IntStream.range(0, 10_000)
+        .mapToObj(i -> new Transaction(Currency.values()[i % 3], i < 3 ? 1e16 : 1.0))
+        .collect(Collectors.toList());
+    Collector<Transaction, ?, Map<Currency, Double>> summingDouble =
+        groupingBy(Transaction::getCurrency, Collectors.summingDouble(Transaction::getAmount));
+    Collector<Transaction, ?, EnumMap<Currency, Double>> summingByEnum =
+        summingByEnum(Currency.class, Transaction::getCurrency, Transaction::getAmount);
+    assertThat(drifting.stream().collect(summingByEnum))
+        .isEqualTo(drifting.stream().collect(summingDouble));
+    assertThat(drifting.parallelStream().collect(summingByEnum))
+        .isEqualTo(drifting.parallelStream().collect(summingDouble));
+  }
+
+  @Test
+  void should_get_max_transactions_by_currency() {
+    EnumMap<Currency, Optional<Transaction>> maxTransactionsByCurrency = transactions.stream()
+        .collect(maxByEnum(Currency.class, Transaction::getCurrency,
+            Comparator.comparing(Transaction::getAmount)));
+    assertThat(maxTransactionsByCurrency.get(MAD)).hasValue(mad2);
+    assertThat(maxTransactionsByCurrency.get(EUR)).hasValue(eur1);
+    assertThat(maxTransactionsByCurrency.get(USD)).hasValue(usd);
+  }
+
+  @Test
+  void should_group_dishes_by_type_and_omit_empty_types() {
+    Dish moroccan1 = new Dish("Dish1", 450, DishType.MOROCCAN);
+    Dish british = new Dish("Dish2", 200, DishType.BRITISH);
+    Dish moroccan2 = new Dish("Dish5", 900, DishType.MOROCCAN);
+    List<Dish> dishes = asList(moroccan1, british, moroccan2);
+
+    EnumMap<DishType, List<Dish>> dishesByType = dishes.stream()
+        .collect(groupingByEnum(DishType.class, Dish::getDishType));
+    assertThat(dishesByType).containsOnlyKeys(DishType.MOROCCAN, DishType.BRITISH);
+    assertThat(dishesByType.get(DishType.MOROCCAN)).containsExactly(moroccan1, moroccan2);
+
+    EnumMap<DishType, Integer> calories = dishes.stream()
+        .collect(summingIntByEnum(DishType.class, Dish::getDishType, Dish::getCalories));
+    assertThat(calories)
+        .containsEntry(DishType.MOROCCAN, 1350)
+        .containsEntry(DishType.BRITISH, 200);
+  }
+
+  @Test
+  void should_give_same_results_on_parallel_streams() {
+    List<Transaction> many = IntStream.range(0, 10_000)
+        .mapToObj(i -> new Transaction(Currency.values()[i % 3], i))
+        .collect(Collectors.toList());
+
+    assertThat(many.parallelStream()
+        .collect(countingByEnum(Currency.class, Transaction::getCurrency)))
+        .isEqualTo(many.stream().collect(groupingBy(Transaction::getCurrency, Collectors.counting())));
+    assertThat(many.parallelStream()
+        .collect(groupingByEnum(Currency.class, Transaction::getCurrency)))
+        .isEqualTo(many.stream().collect(groupingBy(Transaction::getCurrency)));
+    assertThat(many.parallelStream()
+        .collect(maxByEnum(Currency.class, Transaction::getCurrency,
+            Comparator.comparing(Transaction::getAmount)))
+        .get(USD).get().getAmount())
+        .isEqualTo(9997);
+  }
+
+  @Test
+  void should_group_concurrently_without_merging_maps() {
+    List<Transaction> many = IntStream.range(0, 10_000)
+        .mapToObj(i -> new Transaction(Currency.values()[i % 3], i % 100))
+        .collect(Collectors.toList());
+
+    EnumMap<Currency, Map<Boolean, Long>> grouped = many.parallelStream()
+        .collect(groupingByEnumConcurrent(Currency.class, Transaction::getCurrency,
+            Collectors.partitioningBy(Transaction::isExpensive, Collectors.counting())));
+    assertThat(grouped).isEqualTo(many.stream()
+        .collect(groupingBy(Transaction::getCurrency,
+            Collectors.partitioningBy(Transaction::isExpensive, Collectors.counting()))));
+  }
+
+  @Test
+  void should_reject_null_keys() {
+    assertThatThrownBy(() -> asList(mad1, new Transaction(null, 1)).stream()
+        .collect(countingByEnum(Currency.class, Transaction::getCurrency)))
+        .isInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,108 @@
+package java8.collect.stream;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.junit.jupiter.api.Test;
+
+public class LogHistogramTest {
+
+  private static final double[] QUANTILES = {0, 0.5, 0.95, 0.99, 0.999, 1};
+
+  @Test
+  void should_estimate_quantiles_within_relative_accuracy() {
+    Random random = new Random(7);
+    double[] values = random.doubles(100_000).map(value -> Math.exp(value * 12)).toArray();
+    LogHistogram histogram = new LogHistogram(0.01);
+    for (double value : values) {
+      histogram.accept(value);
+    }
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+
+    for (double quantile : QUANTILES) {
+      double exact = sorted[(int) (quantile * (sorted.length - 1))];
+      assertThat(histogram.getValueAtQuantile(quantile)).isCloseTo(exact, offset(exact * 0.01));
+    }
+    assertThat(histogram.getCount()).isEqualTo(100_000);
+    assertThat(histogram.getMin()).isEqualTo(sorted[0]);
+    assertThat(histogram.getMax()).isEqualTo(sorted[sorted.length - 1]);
+  }
+
+  @Test
+  void should_get_percentiles_of_transactions_by_currency() {
+    List<Transaction> transactions = IntStream.rangeClosed(1, 3_000)
+        .mapToObj(i -> new Transaction(Currency.values()[i % 3], i))
+        .collect(toList());
+
+    Map<Currency, LogHistogram> histograms = transactions.parallelStream()
+        .collect(groupingBy(Transaction::getCurrency,
+            LogHistogram.histogram(Transaction::getAmount)));
+
+    assertThat(histograms).containsOnlyKeys(MAD, USD, EUR);
+    assertThat(histograms.get(MAD).getCount()).isEqualTo(1_000);
+    assertThat(histograms.get(MAD).getPercentile(50)).isCloseTo(1_500, offset(15.0));
+    assertThat(histograms.get(USD).getPercentile(99)).isCloseTo(2_971, offset(30.0));
+    assertThat(histograms.get(EUR).getPercentile(100)).isEqualTo(2_999);
+  }
+
+  @Test
+  void should_get_percentiles_of_dish_calories_by_type() {
+    List<Dish> dishes = IntStream.range(0, 400)
+        .mapToObj(i -> new Dish("Dish" + i, 100 + i, DishType.values()[i % 4]))
+        .collect(toList());
+
+    Map<DishType, LogHistogram> histograms = dishes.stream()
+        .collect(groupingBy(Dish::getDishType, LogHistogram.histogram(Dish::getCalories)));
+
+    assertThat(histograms.get(DishType.MOROCCAN).getPercentile(0)).isEqualTo(100);
+    assertThat(histograms.get(DishType.TURKISH).getPercentile(95)).isCloseTo(479, offset(5.0));
+  }
+
+  @Test
+  void should_give_same_quantiles_whatever_the_split() {
+    List<Double> values = new Random(11).doubles(50_000, 0, 1_000).boxed().collect(toList());
+    LogHistogram sequential = values.stream().collect(LogHistogram.histogram(Double::doubleValue));
+    LogHistogram parallel = values.parallelStream()
+        .collect(LogHistogram.histogram(Double::doubleValue));
+    for (double quantile : QUANTILES) {
+      assertThat(parallel.getValueAtQuantile(quantile))
+          .isEqualTo(sequential.getValueAtQuantile(quantile));
+    }
+  }
+
+  @Test
+  void should_handle_zero_and_negative_values() {
+    LogHistogram histogram = new LogHistogram();
+    histogram.accept(-10);
+    histogram.accept(0);
+    histogram.accept(10);
+    assertThat(histogram.getValueAtQuantile(0)).isEqualTo(-10);
+    assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(0);
+    assertThat(histogram.getValueAtQuantile(1)).isEqualTo(10);
+  }
+
+  @Test
+  void should_reject_invalid_input() {
+    assertThat(new LogHistogram().getValueAtQuantile(0.5)).isNaN();
+    assertThatThrownBy(() -> new LogHistogram().accept(Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new LogHistogram().getValueAtQuantile(1.5))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new LogHistogram(0.01).combine(new LogHistogram(0.02)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,190 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingInt;
+import static java8.streams.DishType.BRITISH;
+import static java8.streams.DishType.GERMAN;
+import static java8.streams.DishType.MOROCCAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MaterializedGroupingTest {
+
+  private Dish tajine;
+  private Dish couscous;
+  private Dish fishAndChips;
+  private Dish bratwurst;
+
+  @BeforeEach
+  void setUp() {
+    tajine = new Dish("Tajine", 450, MOROCCAN);
+    couscous = new Dish("Couscous", 700, MOROCCAN);
+    fishAndChips = new Dish("Fish and chips", 900, BRITISH);
+    bratwurst = new Dish("Bratwurst", 400, GERMAN);
+  }
+
+  @Test
+  void should_count_dishes_by_type() {
+    MaterializedGrouping<DishType, Dish, Long> counts =
+        new MaterializedGrouping<>(Dish::getDishType, InvertibleAggregate.counting());
+    counts.addAll(asList(tajine, couscous, fishAndChips));
+
+    assertThat(counts.snapshot()).containsOnly(
+        entry(MOROCCAN, 2L),
+        entry(BRITISH, 1L));
+    assertThat(counts.get(GERMAN)).isEqualTo(0L);
+  }
+
+  @Test
+  void should_update_sums_on_remove() {
+    MaterializedGrouping<DishType, Dish, Long> calories = new MaterializedGrouping<>(
+        Dish::getDishType, InvertibleAggregate.summingInt(Dish::getCalories));
+    calories.addAll(asList(tajine, couscous, fishAndChips));
+
+    assertThat(calories.remove(couscous)).isTrue();
+    assertThat(calories.remove(couscous)).isFalse();
+    assertThat(calories.remove(bratwurst)).isFalse();
+    assertThat(calories.get(MOROCCAN)).isEqualTo(450L);
+
+    calories.remove(fishAndChips);
+    assertThat(calories.snapshot()).containsOnlyKeys(MOROCCAN);
+    assertThat(calories.size()).isEqualTo(1);
+  }
+
+  @Test
+  void should_rebuild_min_when_removing_it() {
+    MaterializedGrouping<DishType, Dish, Optional<Dish>> lightest = new MaterializedGrouping<>(
+        Dish::getDishType, InvertibleAggregate.minBy(Comparator.comparingInt(Dish::getCalories)));
+    lightest.addAll(asList(tajine, couscous, fishAndChips));
+
+    lightest.remove(couscous);
+    assertThat(lightest.get(MOROCCAN)).containsSame(tajine);
+    lightest.add(couscous);
+    lightest.remove(tajine);
+    assertThat(lightest.get(MOROCCAN)).containsSame(couscous);
+  }
+
+  @Test
+  void should_keep_snapshots_unchanged_by_later_writes() {
+    MaterializedGrouping<DishType, Dish, Long> counts =
+        new MaterializedGrouping<>(Dish::getDishType, InvertibleAggregate.counting());
+    counts.add(tajine);
+    Map<DishType, Long> before = counts.snapshot();
+
+    counts.add(couscous);
+
+    assertThat(before).containsOnly(entry(MOROCCAN, 1L));
+    assertThat(counts.snapshot()).containsOnly(entry(MOROCCAN, 2L));
+    assertThat(counts.snapshot()).isSameAs(counts.snapshot());
+    assertThatThrownBy(() -> counts.snapshot().put(GERMAN, 1L))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void should_read_without_waiting_on_writers() throws Exception {
+    MaterializedGrouping<DishType, Dish, Long> counts =
+        new MaterializedGrouping<>(Dish::getDishType, InvertibleAggregate.counting());
+    counts.add(tajine);
+    ExecutorService reader = Executors.newSingleThreadExecutor();
+    try {
+      // Writers hold the grouping's monitor, a reader must not need it.
+      synchronized (counts) {
+        assertThat(reader.submit(() -> counts.get(MOROCCAN)).get(5, TimeUnit.SECONDS))
+            .isEqualTo(1L);
+      }
+    } finally {
+      reader.shutdownNow();
+    }
+  }
+
+  @Test
+  void should_stay_cheap_and_exact_with_many_groups() {
+    // Names of "Aa" and "BB" blocks share hash codes, so groups also collide on purpose.
+    MaterializedGrouping<String, Dish, Long> counts =
+        new MaterializedGrouping<>(Dish::getName, InvertibleAggregate.counting());
+    Map<String, Long> expected = new HashMap<>();
+    List<Dish> dishes = new ArrayList<>();
+    Random random = new Random(42);
+    assertTimeout(Duration.ofSeconds(10), () -> {
+      for (int i = 0; i < 200_000; i++) {
+        if (!dishes.isEmpty() && random.nextInt(3) == 0) {
+          int index = random.nextInt(dishes.size());
+          Dish dish = dishes.set(index, dishes.get(dishes.size() - 1));
+          dishes.remove(dishes.size() - 1);
+          counts.remove(dish);
+          expected.computeIfPresent(dish.getName(), (name, count) -> count == 1 ? null : count - 1);
+        } else {
+          String name = i % 10 == 0
+              ? Integer.toBinaryString(random.nextInt(64)).replace("0", "Aa").replace("1", "BB")
+              : "Dish" + random.nextInt(100_000);
+          Dish dish = new Dish(name, i, DishType.MOROCCAN);
+          dishes.add(dish);
+          counts.add(dish);
+          expected.merge(name, 1L, Long::sum);
+        }
+      }
+    });
+
+    assertThat(counts.snapshot()).isEqualTo(expected).hasSize(expected.size());
+    expected.forEach((name, count) -> assertThat(counts.get(name)).isEqualTo(count));
+    assertThat(counts.get("AaBBAa")).isEqualTo(expected.getOrDefault("AaBBAa", 0L));
+  }
+
+  @Test
+  void should_match_grouping_by_after_random_updates() {
+    MaterializedGrouping<DishType, Dish, Long> counts =
+        new MaterializedGrouping<>(Dish::getDishType, InvertibleAggregate.counting());
+    MaterializedGrouping<DishType, Dish, Long> calories = new MaterializedGrouping<>(
+        Dish::getDishType, InvertibleAggregate.summingInt(Dish::getCalories));
+    MaterializedGrouping<DishType, Dish, Optional<Dish>> heaviest = new MaterializedGrouping<>(
+        Dish::getDishType, InvertibleAggregate.maxBy(Comparator.comparingInt(Dish::getCalories)));
+    List<Dish> dishes = new ArrayList<>();
+    Random random = new Random(42);
+    DishType[] dishTypes = DishType.values();
+    for (int i = 0; i < 10_000; i++) {
+      if (!dishes.isEmpty() && random.nextInt(3) == 0) {
+        Dish dish = dishes.remove(random.nextInt(dishes.size()));
+        counts.remove(dish);
+        calories.remove(dish);
+        heaviest.remove(dish);
+      } else {
+        Dish dish = new Dish("Dish" + i, random.nextInt(1_000),
+            dishTypes[random.nextInt(dishTypes.length)]);
+        dishes.add(dish);
+        counts.add(dish);
+        calories.add(dish);
+        heaviest.add(dish);
+      }
+    }
+
+    assertThat(counts.snapshot())
+        .isEqualTo(dishes.stream().collect(groupingBy(Dish::getDishType, counting())));
+    dishes.stream()
+        .collect(groupingBy(Dish::getDishType, summingInt(Dish::getCalories)))
+        .forEach((dishType, sum) -> assertThat(calories.get(dishType)).isEqualTo((long) sum));
+    dishes.stream()
+        .collect(groupingBy(Dish::getDishType))
+        .forEach((dishType, group) -> assertThat(heaviest.get(dishType).get().getCalories())
+            .isEqualTo(group.stream().mapToInt(Dish::getCalories).max().getAsInt()));
+  }
+}
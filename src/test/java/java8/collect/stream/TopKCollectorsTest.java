@@ -0,0 +1,119 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static java8.collect.stream.TopKCollectors.bottomK;
+import static java8.collect.stream.TopKCollectors.bottomKByDouble;
+import static java8.collect.stream.TopKCollectors.bottomKByInt;
+import static java8.collect.stream.TopKCollectors.topK;
+import static java8.collect.stream.TopKCollectors.topKByDouble;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TopKCollectorsTest {
+
+  private Transaction mad1;
+  private Transaction usd;
+  private Transaction eur1;
+  private Transaction eur2;
+  private Transaction mad2;
+  private List<Transaction> transactions;
+
+  @BeforeEach
+  void setUp() {
+    mad1 = new Transaction(MAD, 100.5);
+    usd = new Transaction(USD, 50);
+    eur1 = new Transaction(EUR, 30);
+    eur2 = new Transaction(EUR, 5.2);
+    mad2 = new Transaction(MAD, 300.7);
+    transactions = asList(mad1, usd, eur1, eur2, mad2);
+  }
+
+  @Test
+  void should_get_top_transactions_by_amount() {
+    List<Transaction> top = transactions.stream()
+        .collect(topK(3, Comparator.comparing(Transaction::getAmount)));
+    assertThat(top).containsExactly(mad2, mad1, usd);
+
+    assertThat(transactions.stream().collect(topKByDouble(3, Transaction::getAmount)))
+        .containsExactly(mad2, mad1, usd);
+  }
+
+  @Test
+  void should_get_bottom_transactions_by_amount() {
+    List<Transaction> bottom = transactions.stream()
+        .collect(bottomK(2, Comparator.comparing(Transaction::getAmount)));
+    assertThat(bottom).containsExactly(eur2, eur1);
+  }
+
+  @Test
+  void should_rank_nan_keys_highest_for_bottom_k() {
+    List<Double> keys = asList(1.0, Double.NaN, 2.0, -0.0, 0.0);
+    assertThat(keys.stream().collect(bottomKByDouble(1, Double::doubleValue)))
+        .containsExactly(-0.0);
+    assertThat(keys.stream().collect(bottomKByDouble(5, Double::doubleValue)))
+        .containsExactly(-0.0, 0.0, 1.0, 2.0, Double.NaN);
+    assertThat(keys.stream().collect(topKByDouble(1, Double::doubleValue)))
+        .containsExactly(Double.NaN);
+  }
+
+  @Test
+  void should_get_top_transactions_by_currency() {
+    Map<Currency, List<Transaction>> topByCurrency = transactions.stream()
+        .collect(groupingBy(Transaction::getCurrency, topKByDouble(1, Transaction::getAmount)));
+    assertThat(topByCurrency.get(MAD)).containsExactly(mad2);
+    assertThat(topByCurrency.get(EUR)).containsExactly(eur1);
+    assertThat(topByCurrency.get(USD)).containsExactly(usd);
+  }
+
+  @Test
+  void should_get_lowest_calories_dishes_by_type() {
+    List<Dish> dishes = IntStream.range(0, 1_000)
+        .mapToObj(i -> new Dish("Dish" + i, (i * 7919) % 1_000, DishType.values()[i % 4]))
+        .collect(toList());
+
+    Map<DishType, List<Dish>> lightest = dishes.parallelStream()
+        .collect(groupingBy(Dish::getDishType, bottomKByInt(50, Dish::getCalories)));
+
+    for (DishType dishType : DishType.values()) {
+      List<Integer> expected = dishes.stream()
+          .filter(dish -> dish.isOfType(dishType))
+          .map(Dish::getCalories)
+          .sorted()
+          .limit(50)
+          .collect(toList());
+      assertThat(lightest.get(dishType).stream().map(Dish::getCalories).collect(toList()))
+          .isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void should_merge_heaps_on_parallel_streams() {
+    List<Integer> top = IntStream.range(0, 100_000).boxed().parallel()
+        .collect(topK(5, Comparator.naturalOrder()));
+    assertThat(top).containsExactly(99_999, 99_998, 99_997, 99_996, 99_995);
+  }
+
+  @Test
+  void should_return_everything_when_less_than_k_elements() {
+    assertThat(transactions.stream().collect(topKByDouble(10, Transaction::getAmount)))
+        .containsExactly(mad2, mad1, usd, eur1, eur2);
+    assertThat(transactions.stream().collect(topKByDouble(0, Transaction::getAmount)))
+        .isEmpty();
+    assertThatThrownBy(() -> topK(-1, Comparator.naturalOrder()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
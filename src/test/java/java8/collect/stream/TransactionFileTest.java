@@ -0,0 +1,136 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.groupingBy;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TransactionFileTest {
+
+  private Path path;
+  private List<Transaction> transactions;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    path = Files.createTempFile("transactions", ".bin");
+    transactions = asList(
+        new Transaction(MAD, 100.5),
+        new Transaction(USD, 50),
+        new Transaction(EUR, 30),
+        new Transaction(EUR, 5.2),
+        new Transaction(MAD, 300.7)
+    );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Test
+  void should_write_fixed_width_records() throws IOException {
+    TransactionFile.write(path, transactions);
+    assertThat(Files.size(path))
+        .isEqualTo(TransactionFile.HEADER_BYTES + 5L * TransactionFile.RECORD_BYTES);
+  }
+
+  @Test
+  void should_read_back_written_transactions() throws IOException {
+    TransactionFile.write(path, transactions);
+    TransactionFile file = TransactionFile.open(path);
+
+    assertThat(file.size()).isEqualTo(5);
+    assertThat(file.getCurrency(3)).isEqualTo(EUR);
+    assertThat(file.getAmount(3)).isEqualTo(5.2);
+    assertThat(file.amounts().sum()).isEqualTo(486.4);
+    assertThat(file.stream().map(Transaction::getCurrency).collect(Collectors.toList()))
+        .containsExactly(MAD, USD, EUR, EUR, MAD);
+  }
+
+  @Test
+  void should_round_trip_ledger() throws IOException {
+    TransactionFile.write(path, TransactionLedger.of(transactions));
+    TransactionLedger ledger = TransactionFile.open(path).toLedger();
+    assertThat(ledger.size()).isEqualTo(5);
+    assertThat(ledger.amounts(MAD).sum()).isEqualTo(401.2);
+  }
+
+  @Test
+  void should_stream_large_files_in_parallel() throws IOException {
+    TransactionLedger ledger = new TransactionLedger();
+    for (int i = 0; i < 100_000; i++) {
+      ledger.add(Currency.values()[i % 3], i);
+    }
+    TransactionFile.write(path, ledger);
+    TransactionFile file = TransactionFile.open(path);
+
+    assertThat(file.amounts().parallel().sum()).isEqualTo(ledger.amounts().sum());
+    Map<Currency, Long> counts = file.stream().parallel()
+        .collect(groupingBy(Transaction::getCurrency, Collectors.counting()));
+    assertThat(counts)
+        .containsEntry(MAD, 33_334L)
+        .containsEntry(USD, 33_333L)
+        .containsEntry(EUR, 33_333L);
+  }
+
+  @Test
+  void should_reject_files_with_unknown_header() throws IOException {
+    Files.write(path, new byte[32]);
+    assertThatThrownBy(() -> TransactionFile.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Not a transaction file");
+  }
+
+  @Test
+  void should_reject_truncated_files() throws IOException {
+    TransactionFile.write(path, transactions);
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+    assertThatThrownBy(() -> TransactionFile.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Truncated");
+  }
+
+  @Test
+  void should_reject_record_counts_that_overflow() throws IOException {
+    // 16 + 9 * count wraps around to the 24 bytes of this file.
+    ByteBuffer header = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(TransactionFile.MAGIC)
+        .putInt(TransactionFile.VERSION)
+        .putLong(8198552921648689608L);
+    Files.write(path, header.array());
+    assertThatThrownBy(() -> TransactionFile.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Truncated");
+  }
+
+  @Test
+  void should_reject_unknown_currency_ordinals_when_read() throws IOException {
+    TransactionFile.write(path, transactions);
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[TransactionFile.HEADER_BYTES] = 7;
+    Files.write(path, bytes);
+    TransactionFile file = TransactionFile.open(path);
+    assertThat(file.getCurrency(1)).isEqualTo(USD);
+    assertThatThrownBy(() -> file.getCurrency(0))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Corrupt transaction file, unknown currency ordinal 7 in record 0");
+    assertThatThrownBy(file::toLedger).isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,172 @@
+package java8.collect.stream;
+
+import static java.util.Arrays.asList;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static java8.collect.stream.Currency.USD;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TransactionLedgerTest {
+
+  private TransactionLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    ledger = TransactionLedger.of(asList(
+        new Transaction(MAD, 100.5),
+        new Transaction(USD, 50),
+        new Transaction(EUR, 30),
+        new Transaction(EUR, 5.2),
+        new Transaction(MAD, 300.7)
+    ));
+  }
+
+  @Test
+  void should_get_transactions_count() {
+    assertThat(ledger.size()).isEqualTo(5);
+    assertThat(ledger.amounts().count()).isEqualTo(5);
+    assertThat(ledger.count(MAD)).isEqualTo(2);
+    assertThat(ledger.count(USD)).isEqualTo(1);
+  }
+
+  @Test
+  void should_get_transactions_amounts_sum() {
+    assertThat(ledger.amounts().sum()).isEqualTo(486.4);
+    assertThat(ledger.amounts(MAD).sum()).isEqualTo(401.2);
+  }
+
+  @Test
+  void should_get_transactions_summary() {
+    DoubleSummaryStatistics summary = ledger.amounts().summaryStatistics();
+    assertThat(summary.getAverage()).isEqualTo(97.28);
+    assertThat(summary.getCount()).isEqualTo(5);
+    assertThat(summary.getMax()).isEqualTo(300.7);
+    assertThat(summary.getMin()).isEqualTo(5.2);
+  }
+
+  @Test
+  void should_get_max_and_min_amount_by_currency() {
+    assertThat(ledger.amounts(EUR).max()).hasValue(30);
+    assertThat(ledger.amounts(EUR).min()).hasValue(5.2);
+    assertThat(ledger.amounts(USD).average()).hasValue(50);
+  }
+
+  @Test
+  void should_sum_minor_units_exactly() {
+    assertThat(ledger.sumOfMinorUnits()).isEqualTo(48_640);
+    assertThat(ledger.sumOfMinorUnits(EUR)).isEqualTo(3_520);
+    assertThat(ledger.minorUnits().sum()).isEqualTo(48_640);
+    assertThat(ledger.getMinorUnits(4)).isEqualTo(30_070);
+    assertThat(ledger.sumOfMinorUnitsByCurrency()).containsExactly(40_120, 5_000, 3_520);
+  }
+
+  @Test
+  void should_reject_amounts_that_are_not_whole_minor_units() {
+    for (double amount : new double[] {0.004, Double.NaN, Double.POSITIVE_INFINITY, 1e300}) {
+      assertThatThrownBy(() -> ledger.add(MAD, amount))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Amount " + amount + " is not a whole number of minor units of MAD");
+    }
+    assertThat(ledger.size()).isEqualTo(5);
+    ledger.add(MAD, 0.01);
+    assertThat(ledger.getAmount(5)).isEqualTo(0.01);
+  }
+
+  @Test
+  void should_round_trip_transaction_amounts() {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = -1_000; i < 1_000; i++) {
+      transactions.add(new Transaction(EUR, i / 100.0));
+    }
+    TransactionLedger ledger = TransactionLedger.of(transactions);
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(ledger.getAmount(i)).isEqualTo(transactions.get(i).getAmount());
+    }
+  }
+
+  @Test
+  void should_fail_instead_of_overflowing_sums() {
+    ledger.addMinorUnits(MAD, Long.MAX_VALUE);
+    assertThatThrownBy(ledger::sumOfMinorUnits).isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> ledger.sumOfMinorUnits(MAD))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(ledger::sumOfMinorUnitsByCurrency)
+        .isInstanceOf(ArithmeticException.class);
+    assertThat(ledger.sumOfMinorUnits(EUR)).isEqualTo(3_520);
+  }
+
+  @Test
+  void should_average_minor_units_by_currency() {
+    assertThat(ledger.average(MAD)).hasValue(200.6);
+    assertThat(ledger.average(EUR)).hasValue(17.6);
+    assertThat(new TransactionLedger().average(USD)).isEmpty();
+  }
+
+  @Test
+  void should_count_expensive_transactions() {
+    assertThat(ledger.countExpensive()).isEqualTo(3);
+    assertThat(ledger.isExpensive(1)).isTrue();
+    assertThat(ledger.isExpensive(2)).isFalse();
+  }
+
+  @Test
+  void should_give_deterministic_sums_whatever_the_split() {
+    TransactionLedger ledger = new TransactionLedger();
+    for (int i = 0; i < 100_000; i++) {
+      ledger.add(EUR, i / 10.0);
+    }
+    long sequential = ledger.sumOfMinorUnits();
+    for (int i = 0; i < 5; i++) {
+      assertThat(ledger.minorUnits().parallel().sum()).isEqualTo(sequential);
+    }
+    assertThat(sequential).isEqualTo(49_999_500_000L);
+  }
+
+  @Test
+  void should_iterate_without_materialising_transactions() {
+    List<String> visited = new ArrayList<>();
+    ledger.forEach((currency, amount) -> visited.add(currency + ":" + amount));
+    assertThat(visited)
+        .containsExactly("MAD:100.5", "USD:50.0", "EUR:30.0", "EUR:5.2", "MAD:300.7");
+  }
+
+  @Test
+  void should_stream_currency_ordinals() {
+    assertThat(ledger.currencyOrdinals().toArray())
+        .containsExactly(MAD.ordinal(), USD.ordinal(), EUR.ordinal(), EUR.ordinal(), MAD.ordinal());
+  }
+
+  @Test
+  void should_materialise_transactions_on_demand() {
+    Transaction transaction = ledger.get(4);
+    assertThat(transaction.getCurrency()).isEqualTo(MAD);
+    assertThat(transaction.getAmount()).isEqualTo(300.7);
+    assertThat(ledger.stream().map(Transaction::getCurrency).collect(Collectors.toList()))
+        .containsExactly(MAD, USD, EUR, EUR, MAD);
+  }
+
+  @Test
+  void should_grow_when_appending() {
+    TransactionLedger ledger = new TransactionLedger(0);
+    for (int i = 0; i < 100; i++) {
+      ledger.add(USD, i);
+    }
+    assertThat(ledger.size()).isEqualTo(100);
+    assertThat(ledger.getAmount(99)).isEqualTo(99);
+    assertThat(ledger.amounts().sum()).isEqualTo(4950);
+  }
+
+  @Test
+  void should_reject_out_of_range_index() {
+    assertThatThrownBy(() -> ledger.getAmount(5))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,96 @@
+package java8.collect.stream;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.groupingByConcurrent;
+import static java.util.stream.Collectors.toList;
+import static java8.ProjectAssertions.assertThat;
+import static java8.collect.stream.Currency.EUR;
+import static java8.collect.stream.Currency.MAD;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TransactionSpliteratorTest {
+
+  private TransactionLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    ledger = new TransactionLedger();
+    for (int i = 0; i < 10_000; i++) {
+      ledger.add(Currency.values()[i % 3], i % 100);
+    }
+  }
+
+  @Test
+  void should_report_sized_but_not_immutable_characteristics() {
+    Spliterator<Transaction> spliterator = TransactionSpliterator.of(ledger);
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED)).isTrue();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+    assertThat(spliterator.hasCharacteristics(Spliterator.IMMUTABLE)).isFalse();
+    assertThat(spliterator.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+    assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(10_000);
+  }
+
+  @Test
+  void should_fail_fast_when_the_source_is_modified_while_streamed() {
+    Spliterator<Transaction> spliterator = TransactionSpliterator.of(ledger);
+    assertThatThrownBy(() -> spliterator.forEachRemaining(transaction -> {
+      if (ledger.size() == 10_000) {
+        ledger.add(MAD, 1);
+      }
+    })).isInstanceOf(ConcurrentModificationException.class);
+  }
+
+  @Test
+  void should_split_evenly() {
+    TransactionSpliterator suffix = TransactionSpliterator.of(ledger);
+    Spliterator<Transaction> prefix = suffix.trySplit();
+    assertThat(prefix.estimateSize()).isEqualTo(5_000);
+    assertThat(suffix.estimateSize()).isEqualTo(5_000);
+
+    Spliterator<Transaction> quarter = prefix.trySplit();
+    assertThat(quarter.estimateSize()).isEqualTo(2_500);
+    assertThat(prefix.estimateSize()).isEqualTo(2_500);
+  }
+
+  @Test
+  void should_stop_splitting_single_elements() {
+    TransactionSpliterator spliterator = TransactionSpliterator.of(TransactionLedger.of(
+        Collections.singletonList(new Transaction(MAD, 1))));
+    assertThat(spliterator.trySplit()).isNull();
+  }
+
+  @Test
+  void should_keep_encounter_order_in_parallel() {
+    List<Transaction> transactions = ledger.stream().collect(toList());
+    List<Double> amounts = StreamSupport.stream(TransactionSpliterator.of(transactions), true)
+        .map(Transaction::getAmount)
+        .collect(toList());
+    assertThat(amounts).isEqualTo(transactions.stream()
+        .map(Transaction::getAmount)
+        .collect(toList()));
+  }
+
+  @Test
+  void should_multi_level_group_concurrently() {
+    ConcurrentMap<Currency, ConcurrentMap<Boolean, Long>> concurrent = ledger.stream().parallel()
+        .collect(groupingByConcurrent(Transaction::getCurrency,
+            groupingByConcurrent(Transaction::isExpensive, Collectors.counting())));
+    Map<Currency, Map<Boolean, Long>> sequential = ledger.stream()
+        .collect(groupingBy(Transaction::getCurrency,
+            groupingBy(Transaction::isExpensive, Collectors.counting())));
+
+    assertThat(concurrent).isEqualTo(sequential);
+    assertThat(concurrent.get(EUR).get(true)).isEqualTo(1_667);
+  }
+}
@@ -242,6 +242,18 @@ public class TransactionTest {
     assertThat(transactionsByExpensiveness.get(FALSE)).containsExactly(eur1, eur2);
   }
 
+  @Test
+  void should_convert_amounts_to_minor_units() {
+    assertThat(mad2.getMinorUnits()).isEqualTo(30070);
+    assertThat(eur2.getMinorUnits()).isEqualTo(520);
+    assertThat(Transaction.ofMinorUnits(MAD, 30070).getAmount()).isEqualTo(300.7);
+
+    long sum = transactions.parallelStream()
+        .mapToLong(Transaction::getMinorUnits)
+        .sum();
+    assertThat(sum).isEqualTo(48640);
+  }
+
 //  @Test
 //  void should_get_max_transaction_by_currency() {
 //    Collector<Transaction, Object, Object> x = Collectors
@@ -0,0 +1,174 @@
+package java8.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java8.lambda.and.method.reference.Apple;
+import java8.lambda.and.method.reference.Color;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncRecordSinkTest {
+
+  private Path path;
+  private List<Apple> apples;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    path = Files.createTempFile("apples", ".txt");
+    Color[] colors = Color.values();
+    apples = IntStream.range(0, 100_000)
+        .mapToObj(i -> new Apple(colors[i % colors.length], i))
+        .collect(Collectors.toList());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Test
+  void should_write_every_record_on_close() throws IOException {
+    try (AsyncRecordSink<Apple> sink = new AsyncRecordSink<>(
+        Files.newByteChannel(path, StandardOpenOption.WRITE), RecordEncoders.apples(), 4096, 2)) {
+      apples.forEach(sink);
+    }
+    assertThat(Files.readAllLines(path, UTF_8))
+        .isEqualTo(apples.stream().map(Apple::toString).collect(Collectors.toList()));
+  }
+
+  @Test
+  void should_write_partial_batch_on_flush() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (AsyncRecordSink<Apple> sink =
+        new AsyncRecordSink<>(Channels.newChannel(out), RecordEncoders.apples())) {
+      sink.accept(new Apple(Color.RED, 100));
+      sink.flush();
+      assertThat(new String(out.toByteArray(), UTF_8)).isEqualTo("Apple(color=RED, weight=100)\n");
+    }
+  }
+
+  @Test
+  void should_block_producer_when_writer_falls_behind() throws IOException {
+    AtomicInteger writtenRecords = new AtomicInteger();
+    int maxBacklog = 0;
+    WritableByteChannel slowChannel = new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer source) {
+        sleep();
+        int remaining = source.remaining();
+        while (source.hasRemaining()) {
+          if (source.get() == '\n') {
+            writtenRecords.incrementAndGet();
+          }
+        }
+        return remaining;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    try (AsyncRecordSink<Apple> sink =
+        new AsyncRecordSink<>(slowChannel, RecordEncoders.apples(), 64, 2)) {
+      for (int i = 0; i < 200; i++) {
+        sink.accept(apples.get(i));
+        maxBacklog = Math.max(maxBacklog, i + 1 - writtenRecords.get());
+      }
+    }
+    // Three records fill a 64 byte batch: at most three queued batches, one being written and
+    // the one being filled are outstanding, far from the 200 records of an unbounded queue.
+    assertThat(maxBacklog).isLessThanOrEqualTo(15);
+    assertThat(writtenRecords.get()).isEqualTo(200);
+  }
+
+  @Test
+  void should_report_write_failures() {
+    WritableByteChannel brokenChannel = new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer source) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    AsyncRecordSink<Apple> sink =
+        new AsyncRecordSink<>(brokenChannel, RecordEncoders.apples(), 64, 1);
+    assertThatThrownBy(() -> apples.forEach(sink))
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("disk full");
+    assertThatThrownBy(sink::close).isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> sink.accept(apples.get(0)))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void should_report_records_dropped_when_the_writer_thread_dies() {
+    AtomicInteger writes = new AtomicInteger();
+    WritableByteChannel interruptingChannel = new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer source) {
+        // Runs on the writer thread, which then stops at its next wait for a batch.
+        writes.incrementAndGet();
+        Thread.currentThread().interrupt();
+        int written = source.remaining();
+        source.position(source.limit());
+        return written;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    AsyncRecordSink<Apple> sink =
+        new AsyncRecordSink<>(interruptingChannel, RecordEncoders.apples(), 64, 1);
+    assertThatThrownBy(() -> {
+      apples.forEach(sink);
+      sink.flush();
+    }).hasMessageContaining("Writer thread stopped");
+    assertThat(writes).hasValue(1);
+    assertThatThrownBy(sink::close)
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Writer thread stopped");
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
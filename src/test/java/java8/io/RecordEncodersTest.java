@@ -0,0 +1,69 @@
+package java8.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java8.collect.stream.Currency;
+import java8.collect.stream.Transaction;
+import java8.lambda.and.method.reference.Apple;
+import java8.lambda.and.method.reference.Color;
+import java8.streams.Dish;
+import java8.streams.DishType;
+import org.junit.jupiter.api.Test;
+
+public class RecordEncodersTest {
+
+  private final RecordBuffer buffer = new RecordBuffer(4);
+
+  @Test
+  void should_encode_apples_like_to_string() {
+    Apple apple = new Apple(Color.YELLOW, 200);
+    RecordEncoders.apples().encode(apple, buffer);
+    assertThat(text()).isEqualTo(apple + "\n");
+  }
+
+  @Test
+  void should_encode_transactions_with_currency_fraction_digits() {
+    RecordEncoders.transactions().encode(new Transaction(Currency.MAD, 100.5), buffer);
+    RecordEncoders.transactions().encode(new Transaction(Currency.EUR, -0.07), buffer);
+    assertThat(text()).isEqualTo("Transaction(currency=MAD, amount=100.50)\n"
+        + "Transaction(currency=EUR, amount=-0.07)\n");
+  }
+
+  @Test
+  void should_encode_amounts_below_a_minor_unit_in_full() {
+    RecordEncoders.transactions().encode(new Transaction(Currency.MAD, 0.004), buffer);
+    RecordEncoders.transactions().encode(new Transaction(Currency.USD, 1.0 / 3), buffer);
+    RecordEncoders.transactions().encode(new Transaction(Currency.EUR, Double.NaN), buffer);
+    assertThat(text()).isEqualTo("Transaction(currency=MAD, amount=0.004)\n"
+        + "Transaction(currency=USD, amount=" + 1.0 / 3 + ")\n"
+        + "Transaction(currency=EUR, amount=NaN)\n");
+  }
+
+  @Test
+  void should_encode_dish_names_as_utf8() {
+    String name = "K\u00f6fte \u0634\u0648\u0627\u0621 " + new String(Character.toChars(0x1F958));
+    RecordEncoders.dishes().encode(new Dish(name, 350, DishType.TURKISH), buffer);
+    assertThat(text()).isEqualTo("Dish(name=" + name + ", calories=350, dishType=TURKISH)\n");
+  }
+
+  @Test
+  void should_append_numbers_without_strings() {
+    buffer.append(0L).append(' ').append(-42L).append(' ').append(Long.MAX_VALUE).append(' ')
+        .append(Long.MIN_VALUE).append(' ').appendDecimal(5, 3).append(' ').appendDecimal(-1234, 0);
+    assertThat(text()).isEqualTo(
+        "0 -42 " + Long.MAX_VALUE + " " + Long.MIN_VALUE + " 0.005 -1234");
+  }
+
+  @Test
+  void should_replace_lone_surrogates() {
+    buffer.append("a\ud800b").append('\udc00');
+    assertThat(text()).isEqualTo("a?b?");
+  }
+
+  private String text() {
+    ByteBuffer bytes = buffer.toByteBuffer();
+    return new String(bytes.array(), 0, bytes.limit(), UTF_8);
+  }
+}
@@ -0,0 +1,91 @@
+package java8.lambda.and.method.reference;
+
+import static java.util.stream.Collectors.toList;
+import static java8.lambda.and.method.reference.AppleRule.color;
+import static java8.lambda.and.method.reference.AppleRule.weightAtLeast;
+import static java8.lambda.and.method.reference.AppleRule.weightBelow;
+import static java8.lambda.and.method.reference.AppleRule.weightBetween;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class AppleRuleTest {
+
+  private final Random random = new Random(42);
+
+  @Test
+  void should_filter_with_compiled_rule() {
+    CompiledAppleRule expensive = weightAtLeast(100).or(color(Color.GREEN)).compile();
+    List<Apple> apples = Arrays.asList(
+        new Apple(Color.RED, 100), new Apple(Color.GREEN, 80), new Apple(Color.YELLOW, 99));
+
+    assertThat(apples.stream().filter(expensive).map(Apple::getWeight).collect(toList()))
+        .containsExactly(100, 80);
+  }
+
+  @Test
+  void should_apply_per_color_thresholds() {
+    CompiledAppleRule rule = color(Color.RED).and(weightAtLeast(150))
+        .or(color(Color.GREEN, Color.YELLOW).and(weightBetween(80, 120)))
+        .compile();
+
+    assertThat(rule.test(Color.RED, 149)).isFalse();
+    assertThat(rule.test(Color.RED, 150)).isTrue();
+    assertThat(rule.test(Color.GREEN, 79)).isFalse();
+    assertThat(rule.test(Color.GREEN, 80)).isTrue();
+    assertThat(rule.test(Color.YELLOW, 120)).isTrue();
+    assertThat(rule.test(Color.YELLOW, 121)).isFalse();
+  }
+
+  @Test
+  void should_handle_extreme_weights() {
+    assertThat(weightBetween(Integer.MIN_VALUE, Integer.MAX_VALUE).compile()
+        .test(Color.RED, Integer.MAX_VALUE)).isTrue();
+    assertThat(weightBelow(Integer.MIN_VALUE).compile().test(Color.RED, Integer.MIN_VALUE))
+        .isFalse();
+    assertThatThrownBy(() -> weightBetween(2, 1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void should_handle_apples_without_a_color() {
+    assertThat(new Apple(null, 150).isHeavy()).isTrue();
+    assertThat(new Apple(null, 50).isLightWeight()).isTrue();
+    assertThat(new Apple(null, 150).isExpensive()).isTrue();
+    assertThat(new Apple(null, 50).isExpensive()).isFalse();
+    assertThat(color(Color.GREEN).compile().test(null, 100)).isFalse();
+  }
+
+  @Test
+  void should_agree_with_the_rule_tree_for_random_rules() {
+    for (int round = 0; round < 200; round++) {
+      AppleRule rule = randomRule(4);
+      CompiledAppleRule compiled = rule.compile();
+      for (Color color : Color.values()) {
+        for (int weight = -5; weight <= 205; weight++) {
+          assertThat(compiled.test(color, weight))
+              .as("%s for %s %d", rule, color, weight)
+              .isEqualTo(rule.test(color, weight));
+        }
+      }
+    }
+  }
+
+  private AppleRule randomRule(int depth) {
+    switch (depth == 0 ? random.nextInt(2) : random.nextInt(5)) {
+      case 0:
+        return weightAtLeast(random.nextInt(200));
+      case 1:
+        return color(Color.values()[random.nextInt(Color.values().length)]);
+      case 2:
+        return randomRule(depth - 1).and(randomRule(depth - 1));
+      case 3:
+        return randomRule(depth - 1).or(randomRule(depth - 1));
+      default:
+        return randomRule(depth - 1).not();
+    }
+  }
+}
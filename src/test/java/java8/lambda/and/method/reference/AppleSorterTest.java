@@ -0,0 +1,88 @@
+package java8.lambda.and.method.reference;
+
+import static java8.lambda.and.method.reference.AppleSorter.Attribute.COLOR;
+import static java8.lambda.and.method.reference.AppleSorter.Attribute.WEIGHT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class AppleSorterTest {
+
+  private Apple redApple = new Apple(Color.RED, 100);
+  private Apple greenApple = new Apple(Color.GREEN, 80);
+  private Apple yellowApple = new Apple(Color.YELLOW, 120);
+  private Apple anotherRedApple = new Apple(Color.RED, 110);
+
+  @Test
+  void should_sort_apples_ascending_by_color_then_by_weight() {
+    List<Apple> apples = new ArrayList<>(
+        Arrays.asList(yellowApple, anotherRedApple, greenApple, redApple));
+    AppleSorter.by(COLOR, WEIGHT).sort(apples);
+    assertThat(apples).containsExactly(redApple, anotherRedApple, greenApple, yellowApple);
+  }
+
+  @Test
+  void should_sort_descending_by_weight_then_color() {
+    List<Apple> apples = new LinkedList<>(
+        Arrays.asList(redApple, greenApple, yellowApple, anotherRedApple));
+    AppleSorter.by(WEIGHT, COLOR).reversed().parallelSort(apples);
+    assertThat(apples).containsExactly(yellowApple, anotherRedApple, redApple, greenApple);
+  }
+
+  @Test
+  void should_order_extreme_weights_without_overflow() {
+    Apple lightest = new Apple(Color.RED, Integer.MIN_VALUE);
+    Apple heaviest = new Apple(Color.RED, Integer.MAX_VALUE);
+    assertThat(heaviest.compareTo(lightest)).isPositive();
+
+    List<Apple> apples = new ArrayList<>(Arrays.asList(heaviest, redApple, lightest));
+    AppleSorter.by(WEIGHT).sort(apples);
+    assertThat(apples).containsExactly(lightest, redApple, heaviest);
+  }
+
+  @Test
+  void should_keep_ties_in_list_order() {
+    Apple sameAsRed = new Apple(Color.RED, 100);
+    List<Apple> apples = new ArrayList<>(Arrays.asList(redApple, greenApple, sameAsRed));
+    AppleSorter.by(COLOR).reversed().sort(apples);
+    assertThat(apples).containsExactly(greenApple, redApple, sameAsRed);
+  }
+
+  @Test
+  void should_match_comparator_sort() {
+    Random random = new Random(42);
+    Color[] colors = Color.values();
+    List<Apple> apples = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      apples.add(new Apple(colors[random.nextInt(colors.length)], random.nextInt() >> 8));
+    }
+    Comparator<Apple> byColorThenWeight =
+        Comparator.comparing(Apple::getColor).thenComparingInt(Apple::getWeight);
+
+    List<Apple> expected = new ArrayList<>(apples);
+    expected.sort(byColorThenWeight);
+    List<Apple> radix = new ArrayList<>(apples);
+    AppleSorter.by(COLOR, WEIGHT).sort(radix);
+    List<Apple> parallel = new ArrayList<>(apples);
+    AppleSorter.by(COLOR, WEIGHT).parallelSort(parallel);
+    assertThat(radix).containsExactlyElementsOf(expected);
+    assertThat(parallel).containsExactlyElementsOf(expected);
+
+    expected.sort(byColorThenWeight.reversed());
+    AppleSorter.by(COLOR, WEIGHT).reversed().sort(radix);
+    assertThat(radix).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void should_reject_duplicate_attributes() {
+    assertThatThrownBy(() -> AppleSorter.by(WEIGHT, WEIGHT))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
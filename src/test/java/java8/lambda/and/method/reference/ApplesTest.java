@@ -0,0 +1,77 @@
+package java8.lambda.and.method.reference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ApplesTest {
+
+  @Test
+  void should_return_the_same_apple_for_the_same_color_and_weight() {
+    BiFunction<Color, Integer, Apple> colorAndWeightToApple = Apples::of;
+    Apple apple = colorAndWeightToApple.apply(Color.GREEN, 200);
+
+    assertThat(apple).isSameAs(Apples.of(Color.GREEN, 200));
+    assertThat(apple).isNotSameAs(Apples.of(Color.RED, 200));
+    assertThat(apple.getColor()).isEqualTo(Color.GREEN);
+    assertThat(apple.getWeight()).isEqualTo(200);
+  }
+
+  @Test
+  void should_intern_apples_outside_the_table_concurrently() {
+    Apples.Overflow overflow = new Apples.Overflow(16);
+    Set<Apple> apples = Collections.newSetFromMap(new IdentityHashMap<>());
+    IntStream.range(0, 10_000).parallel()
+        .mapToObj(i -> overflow.of(Color.YELLOW, -1 - i % 3))
+        .sequential()
+        .forEach(apples::add);
+
+    assertThat(apples).hasSize(3);
+    assertThat(overflow.of(Color.RED, -1)).isNotSameAs(overflow.of(Color.YELLOW, -1));
+  }
+
+  @Test
+  void should_stop_interning_once_the_overflow_is_full() {
+    Apples.Overflow overflow = new Apples.Overflow(16);
+    IntStream.range(0, 100).parallel().forEach(i -> overflow.of(Color.GREEN, 10_000 + i));
+
+    assertThat(overflow.size()).isBetween(16, 16 + Runtime.getRuntime().availableProcessors());
+    assertThat(overflow.of(Color.GREEN, Integer.MAX_VALUE))
+        .isEqualTo(overflow.of(Color.GREEN, Integer.MAX_VALUE))
+        .isNotSameAs(overflow.of(Color.GREEN, Integer.MAX_VALUE));
+    assertThat(overflow.of(Color.GREEN, 10_000)).isEqualTo(new Apple(Color.GREEN, 10_000));
+  }
+
+  @Test
+  void should_build_apples_in_bulk() {
+    List<Apple> apples = Apples.of(new byte[] {0, 1, 2}, new int[] {100, 80, 5_000});
+
+    assertThat(apples).containsExactly(
+        new Apple(Color.RED, 100), new Apple(Color.GREEN, 80), new Apple(Color.YELLOW, 5_000));
+    assertThat(apples.get(0)).isSameAs(Apples.of(Color.RED, 100));
+    assertThat(apples.get(2)).isSameAs(Apples.of(Color.YELLOW, 5_000));
+    assertThatThrownBy(() -> Apples.of(new byte[] {3}, new int[] {1}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Apples.of(new byte[] {0}, new int[0]))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void should_find_canonical_apples_by_identity_or_value() {
+    List<Apple> apples = Apples.of(new byte[] {0, 1}, new int[] {100, 80});
+
+    assertThat(apples.contains(Apples.of(Color.GREEN, 80))).isTrue();
+    assertThat(apples.contains(new Apple(Color.GREEN, 80))).isTrue();
+    assertThat(apples.get(0).matches(Apples.of(Color.RED, 100))).isTrue();
+    assertThat(apples.get(0).matches(new Apple(Color.RED, 101))).isFalse();
+    assertThat(new Apple(Color.RED, 100).hashCode())
+        .isEqualTo(Apples.of(Color.RED, 100).hashCode());
+  }
+}
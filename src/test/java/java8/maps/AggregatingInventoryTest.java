@@ -0,0 +1,97 @@
+package java8.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AggregatingInventoryTest {
+
+  private AggregatingInventory inventory;
+
+  @BeforeEach
+  void setUp() {
+    inventory = new AggregatingInventory();
+    inventory.putNull("hp");
+    inventory.put("lenovo", 100);
+    inventory.put("huwawei", 200);
+  }
+
+  @Test
+  void should_compute_if_absent_from_the_running_sum() {
+    int dellPrice = inventory.computeIfAbsent("dell", k -> (int) inventory.sum());
+    assertThat(dellPrice).isEqualTo(300);
+    assertThat(inventory.sum()).isEqualTo(600);
+    assertThat(inventory.count()).isEqualTo(3);
+    assertThat(inventory.size()).isEqualTo(4);
+  }
+
+  @Test
+  void should_update_aggregates_on_every_write() {
+    inventory.mergeInt("lenovo", 50, Integer::sum);
+    assertThat(inventory.sum()).isEqualTo(350);
+    assertThat(inventory.min()).hasValue(150);
+
+    inventory.put("hp", 20);
+    assertThat(inventory.min()).hasValue(20);
+    assertThat(inventory.count()).isEqualTo(3);
+
+    inventory.remove("huwawei");
+    assertThat(inventory.max()).hasValue(150);
+    inventory.putNull("lenovo");
+    assertThat(inventory.max()).hasValue(20);
+    assertThat(inventory.average()).hasValue(20);
+    inventory.remove("hp");
+    assertThat(inventory.min()).isEmpty();
+    assertThat(inventory.sum()).isZero();
+  }
+
+  @Test
+  void should_match_a_full_scan_after_random_operations() {
+    Map<String, Integer> expected = new HashMap<>();
+    AggregatingInventory actual = new AggregatingInventory();
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      String key = "sku-" + random.nextInt(1_000);
+      int value = random.nextInt(2_000) - 1_000;
+      switch (random.nextInt(5)) {
+        case 0:
+          expected.put(key, value);
+          actual.put(key, value);
+          break;
+        case 1:
+          expected.put(key, null);
+          actual.putNull(key);
+          break;
+        case 2:
+          expected.merge(key, value, Integer::sum);
+          actual.mergeInt(key, value, Integer::sum);
+          break;
+        case 3:
+          expected.remove(key);
+          actual.remove(key);
+          break;
+        default:
+          expected.computeIfAbsent(key, k -> value);
+          actual.computeIfAbsent(key, k -> value);
+      }
+      if (i % 97 == 0) {
+        IntSummaryStatistics statistics = expected.values().stream()
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .summaryStatistics();
+        assertThat(actual.sum()).isEqualTo(statistics.getSum());
+        assertThat(actual.count()).isEqualTo(statistics.getCount());
+        if (statistics.getCount() > 0) {
+          assertThat(actual.min()).hasValue(statistics.getMin());
+          assertThat(actual.max()).hasValue(statistics.getMax());
+        }
+      }
+    }
+  }
+}
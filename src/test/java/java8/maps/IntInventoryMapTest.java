@@ -0,0 +1,122 @@
+package java8.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IntInventoryMapTest {
+
+  private IntInventoryMap inventory;
+
+  @BeforeEach
+  void setUp() {
+    inventory = new IntInventoryMap();
+    inventory.putNull("hp");
+    inventory.put("lenovo", 100);
+    inventory.put("huwawei", 200);
+  }
+
+  @Test
+  void should_get_or_default_value() {
+    assertThat(inventory.getOrDefault("mac book", 0)).isEqualTo(0);
+    assertThat(inventory.getOrDefault("hp", 0, -1)).isEqualTo(-1);
+    assertThat(inventory.containsKey("hp")).isTrue();
+    assertThat(inventory.isNull("hp")).isTrue();
+    assertThat(inventory.isNull("mac book")).isFalse();
+    assertThat(inventory.getOrDefault("lenovo", 0)).isEqualTo(100);
+  }
+
+  @Test
+  void should_compute_if_absent() {
+    int dellPrice = inventory.computeIfAbsent("dell", k -> inventory.values().sum());
+    assertThat(dellPrice).isEqualTo(300);
+    assertThat(inventory.getOrDefault("dell", 0)).isEqualTo(300);
+    assertThat(inventory.computeIfAbsent("dell", k -> 1)).isEqualTo(300);
+    assertThat(inventory.computeIfAbsent("hp", String::length)).isEqualTo(2);
+    assertThat(inventory.nullCount()).isZero();
+  }
+
+  @Test
+  void should_merge() {
+    assertThat(inventory.mergeInt("lenovo", 50, Integer::sum)).isEqualTo(150);
+    assertThat(inventory.mergeInt("hp", 50, Integer::sum)).isEqualTo(50);
+    assertThat(inventory.mergeInt("asus", 70, Integer::sum)).isEqualTo(70);
+    assertThat(inventory.size()).isEqualTo(4);
+  }
+
+  @Test
+  void should_remove_keys() {
+    assertThat(inventory.remove("hp")).isTrue();
+    assertThat(inventory.remove("hp")).isFalse();
+    assertThat(inventory.containsKey("hp")).isFalse();
+    assertThat(inventory.nullCount()).isZero();
+    assertThat(inventory.size()).isEqualTo(2);
+  }
+
+  @Test
+  void should_reject_null_keys() {
+    assertThatThrownBy(() -> inventory.put(null, 1)).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void should_behave_like_hash_map_under_random_operations() {
+    Map<String, Integer> expected = new HashMap<>();
+    IntInventoryMap actual = new IntInventoryMap(0);
+    Random random = new Random(42);
+    for (int i = 0; i < 200_000; i++) {
+      String key = "sku-" + random.nextInt(5_000);
+      int value = random.nextInt(1_000);
+      switch (random.nextInt(5)) {
+        case 0:
+          expected.put(key, value);
+          actual.put(key, value);
+          break;
+        case 1:
+          expected.put(key, null);
+          actual.putNull(key);
+          break;
+        case 2:
+          assertThat(actual.mergeInt(key, value, Integer::sum))
+              .isEqualTo(expected.merge(key, value, Integer::sum));
+          break;
+        case 3:
+          assertThat(actual.remove(key)).isEqualTo(expected.containsKey(key));
+          expected.remove(key);
+          break;
+        default:
+          assertThat(actual.computeIfAbsent(key, k -> value))
+              .isEqualTo(expected.computeIfAbsent(key, k -> value));
+      }
+    }
+
+    assertThat(actual.size()).isEqualTo(expected.size());
+    assertThat(actual.nullCount())
+        .isEqualTo(expected.values().stream().filter(Objects::isNull).count());
+    expected.forEach((key, value) -> {
+      assertThat(actual.containsKey(key)).isTrue();
+      assertThat(actual.isNull(key)).isEqualTo(value == null);
+      assertThat(actual.getOrDefault(key, -1)).isEqualTo(value == null ? -1 : value);
+    });
+    Map<String, Integer> visited = new HashMap<>();
+    actual.forEach(visited::put);
+    expected.values().removeIf(Objects::isNull);
+    assertThat(visited).isEqualTo(expected);
+  }
+
+  @Test
+  void should_copy_a_map_with_null_prices() {
+    Map<String, Integer> map = new HashMap<>();
+    map.put("hp", null);
+    map.put("lenovo", 100);
+    IntInventoryMap copy = IntInventoryMap.copyOf(map);
+    assertThat(copy.isNull("hp")).isTrue();
+    assertThat(copy.getOrDefault("lenovo", 0)).isEqualTo(100);
+    assertThat(copy.toString()).contains("hp=null", "lenovo=100");
+  }
+}
@@ -0,0 +1,75 @@
+package java8.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StripedInventoryTest {
+
+  private StripedInventory inventory;
+
+  @BeforeEach
+  void setUp() {
+    inventory = new StripedInventory();
+    inventory.add("lenovo", 100);
+    inventory.add("huwawei", 200);
+  }
+
+  @Test
+  void should_merge() {
+    inventory.add("lenovo", 50);
+    assertThat(inventory.get("lenovo")).isEqualTo(150);
+    assertThat(inventory.getOrDefault("mac book", -1)).isEqualTo(-1);
+    assertThat(inventory.total()).isEqualTo(350);
+  }
+
+  @Test
+  void should_remove_and_snapshot() {
+    assertThat(inventory.remove("huwawei")).isEqualTo(200);
+    assertThat(inventory.containsKey("huwawei")).isFalse();
+    assertThat(inventory.snapshot()).containsOnly(entry("lenovo", 100L));
+
+    Map<String, Long> visited = new HashMap<>();
+    inventory.forEach(visited::put);
+    assertThat(visited).isEqualTo(inventory.snapshot());
+  }
+
+  @Test
+  void should_give_exact_totals_after_concurrent_merges() throws InterruptedException {
+    int threads = 8;
+    int deltasPerThread = 100_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      int thread = t;
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int i = 0; i < deltasPerThread; i++) {
+          inventory.increment("lenovo");
+          inventory.add("sku-" + (i + thread) % 10, i % 2 == 0 ? 3 : -1);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+    assertThat(inventory.get("lenovo")).isEqualTo(100 + (long) threads * deltasPerThread);
+    assertThat(inventory.size()).isEqualTo(12);
+    assertThat(inventory.total())
+        .isEqualTo(300 + (long) threads * deltasPerThread + threads * (deltasPerThread / 2 * 2L));
+  }
+}
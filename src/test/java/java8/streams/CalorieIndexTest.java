@@ -0,0 +1,93 @@
+package java8.streams;
+
+import static java.util.stream.Collectors.toList;
+import static java8.streams.DishType.BRITISH;
+import static java8.streams.DishType.GERMAN;
+import static java8.streams.DishType.MOROCCAN;
+import static java8.streams.DishType.TURKISH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class CalorieIndexTest {
+
+  private Dish moroccan1 = new Dish("Dish1", 450, MOROCCAN);
+  private Dish british = new Dish("Dish2", 200, BRITISH);
+  private Dish german = new Dish("Dish3", 400, GERMAN);
+  private Dish turkish = new Dish("Dish4", 350, TURKISH);
+  private Dish moroccan2 = new Dish("Dish5", 900, MOROCCAN);
+  private Collection<Dish> dishes = Arrays.asList(
+      moroccan1,
+      british,
+      german,
+      turkish,
+      moroccan2
+  );
+  private CalorieIndex index = new CalorieIndex(dishes);
+
+  @Test
+  void should_get_max_and_min_dishes_calories() {
+    assertThat(index.maxCalories()).hasValue(900);
+    assertThat(index.minCalories()).hasValue(200);
+    assertThat(index.lightest()).hasValue(british);
+    assertThat(index.heaviest()).hasValue(moroccan2);
+    assertThat(index.minCalories(MOROCCAN)).hasValue(450);
+    assertThat(new CalorieIndex().maxCalories()).isEmpty();
+  }
+
+  @Test
+  void should_query_calorie_ranges() {
+    assertThat(index.countBetween(300, 450)).isEqualTo(3);
+    assertThat(index.between(300, 450).collect(toList()))
+        .containsExactly(turkish, german, moroccan1);
+    assertThat(index.countBetween(MOROCCAN, 0, 500)).isEqualTo(1);
+    assertThat(index.countBetween(500, 300)).isZero();
+  }
+
+  @Test
+  void should_find_nearest_dishes() {
+    assertThat(index.nearest(380, 2)).containsExactly(german, turkish);
+    assertThat(index.nearest(1_000, 1)).containsExactly(moroccan2);
+    assertThat(index.nearest(MOROCCAN, 0, 5)).containsExactly(moroccan1, moroccan2);
+  }
+
+  @Test
+  void should_include_dishes_added_after_queries() {
+    assertThat(index.countBetween(100, 250)).isEqualTo(1);
+    Dish light = new Dish("Dish6", 150, GERMAN);
+    index.add(light);
+    assertThat(index.countBetween(100, 250)).isEqualTo(2);
+    assertThat(index.lightest()).hasValue(light);
+    assertThat(index.minCalories(GERMAN)).hasValue(150);
+  }
+
+  @Test
+  void should_match_full_scans_on_large_catalogs() {
+    Random random = new Random(3);
+    CalorieIndex index = new CalorieIndex();
+    List<Dish> dishes = new ArrayList<>();
+    for (int batch = 0; batch < 5; batch++) {
+      for (int i = 0; i < 2_000; i++) {
+        Dish dish = new Dish("Dish" + i, random.nextInt(1_000), DishType.values()[i % 4]);
+        dishes.add(dish);
+        index.add(dish);
+      }
+      long expected = dishes.stream()
+          .filter(dish -> dish.getCalories() >= 300 && dish.getCalories() <= 450)
+          .count();
+      assertThat(index.countBetween(300, 450)).isEqualTo(expected);
+    }
+    List<Integer> sorted = index.between(0, 1_000).map(Dish::getCalories).collect(toList());
+    assertThat(sorted).isSorted().hasSize(10_000);
+    assertThat(index.maxCalories(TURKISH).getAsInt()).isEqualTo(dishes.stream()
+        .filter(dish -> dish.isOfType(TURKISH))
+        .collect(Collectors.summarizingInt(Dish::getCalories))
+        .getMax());
+  }
+}
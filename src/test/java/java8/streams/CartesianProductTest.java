@@ -0,0 +1,87 @@
+package java8.streams;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class CartesianProductTest {
+
+  @Test
+  void should_get_pairs_of_each_elements_in_both_tables() {
+    List<String> pairs = CartesianProduct.pairs(new int[] {1, 2, 3}, new int[] {3, 4})
+        .mapToObj(pair -> Arrays.toString(
+            new int[] {CartesianProduct.left(pair), CartesianProduct.right(pair)}))
+        .collect(toList());
+    assertThat(pairs).containsExactly("[1, 3]", "[1, 4]", "[2, 3]", "[2, 4]", "[3, 3]", "[3, 4]");
+  }
+
+  @Test
+  void should_pack_negative_values() {
+    long pair = CartesianProduct.pack(-1, -2);
+    assertThat(CartesianProduct.left(pair)).isEqualTo(-1);
+    assertThat(CartesianProduct.right(pair)).isEqualTo(-2);
+    assertThat(CartesianProduct.pairs(new int[] {-5}, new int[] {Integer.MIN_VALUE})
+        .map(CartesianProduct::right).toArray()).containsExactly(Integer.MIN_VALUE);
+  }
+
+  @Test
+  void should_feed_primitive_pairs_to_consumers() {
+    List<String> pairs = new ArrayList<>();
+    CartesianProduct.forEachPair(new long[] {1, 2}, new long[] {10L << 40},
+        (left, right) -> pairs.add(left + "," + right));
+    assertThat(pairs).containsExactly("1," + (10L << 40), "2," + (10L << 40));
+  }
+
+  @Test
+  void should_combine_lists_by_index() {
+    List<String> menus = CartesianProduct.pairs(
+        asList("Tajine", "Couscous"), asList("Tea", "Juice"), (dish, drink) -> dish + "+" + drink)
+        .collect(toList());
+    assertThat(menus)
+        .containsExactly("Tajine+Tea", "Tajine+Juice", "Couscous+Tea", "Couscous+Juice");
+  }
+
+  @Test
+  void should_stream_tuples_in_row_major_order() {
+    List<String> tuples = CartesianProduct.tuples(asList(asList("a", "b"), asList(1, 2, 3)))
+        .map(tuple -> tuple.get(0) + "" + tuple.get(1))
+        .collect(toList());
+    assertThat(tuples).containsExactly("a1", "a2", "a3", "b1", "b2", "b3");
+    assertThat(CartesianProduct.indexTuples(2, 0, 3).count()).isZero();
+  }
+
+  @Test
+  void should_report_exact_size_and_split_evenly() {
+    Spliterator.OfLong spliterator = CartesianProduct.indexPairs(3, 1_000).spliterator();
+    assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(3_000);
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assertThat(prefix.estimateSize()).isEqualTo(1_500);
+    assertThat(spliterator.estimateSize()).isEqualTo(1_500);
+    assertThatThrownBy(() -> CartesianProduct.size(1 << 30, 1 << 30, 1 << 30))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void should_give_the_same_product_in_parallel() {
+    int[] left = LongStream.range(0, 301).mapToInt(i -> (int) i * 7).toArray();
+    int[] right = LongStream.range(0, 199).mapToInt(i -> (int) -i).toArray();
+    long[] sequential = CartesianProduct.pairs(left, right).toArray();
+    assertThat(CartesianProduct.pairs(left, right).parallel().toArray())
+        .containsExactly(sequential);
+
+    List<String> tuples = CartesianProduct.indexTuples(7, 11, 13)
+        .map(Arrays::toString)
+        .collect(toList());
+    assertThat(CartesianProduct.indexTuples(7, 11, 13).parallel().map(Arrays::toString)
+        .collect(toList())).isEqualTo(tuples).hasSize(7 * 11 * 13);
+    assertThat(tuples.get(14)).isEqualTo("[0, 1, 1]");
+  }
+}
@@ -0,0 +1,109 @@
+package java8.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class CodePointsTest {
+
+  private static final String COUSCOUS_EMOJI = new String(Character.toChars(0x1F958));
+
+  @Test
+  void should_stream_code_points_of_all_texts() {
+    assertThat(CodePoints.of("he", "", "llo").toArray())
+        .containsExactly("hello".codePoints().toArray());
+  }
+
+  @Test
+  void should_get_distinct_letters_in_encounter_order() {
+    String letters = CodePoints.distinct(CodePoints.of("hello", "world"))
+        .mapToObj(codePoint -> new String(Character.toChars(codePoint)))
+        .collect(Collectors.joining());
+    assertThat(letters).isEqualTo("helowrd");
+  }
+
+  @Test
+  void should_keep_supplementary_code_points_whole() {
+    int[] distinct = CodePoints.distinct(
+        CodePoints.of("tajine " + COUSCOUS_EMOJI, COUSCOUS_EMOJI + "\u00e9")).toArray();
+    assertThat(distinct).containsExactly('t', 'a', 'j', 'i', 'n', 'e', ' ', 0x1F958, 0xE9);
+  }
+
+  @Test
+  void should_not_split_surrogate_pairs() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 1_000; i++) {
+      text.append(COUSCOUS_EMOJI).append('a');
+    }
+    Spliterator.OfInt spliterator = CodePoints.of(text).spliterator();
+    List<Spliterator.OfInt> parts = new ArrayList<>(Collections.singletonList(spliterator));
+    for (int round = 0; round < 6; round++) {
+      List<Spliterator.OfInt> split = new ArrayList<>();
+      for (Spliterator.OfInt part : parts) {
+        Spliterator.OfInt prefix = part.trySplit();
+        if (prefix != null) {
+          split.add(prefix);
+        }
+        split.add(part);
+      }
+      parts = split;
+    }
+    assertThat(parts).hasSize(64);
+    List<Integer> codePoints = new ArrayList<>();
+    parts.forEach(part -> part.forEachRemaining((int codePoint) -> codePoints.add(codePoint)));
+    assertThat(codePoints).containsExactlyElementsOf(
+        text.codePoints().boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  void should_consume_the_source_lazily_and_close_it() {
+    for (boolean parallel : new boolean[] {false, true}) {
+      AtomicInteger consumed = new AtomicInteger();
+      AtomicBoolean closed = new AtomicBoolean();
+      IntStream source = CodePoints.of("hello", "world").peek(c -> consumed.incrementAndGet())
+          .onClose(() -> closed.set(true));
+      IntStream distinct = CodePoints.distinct(parallel ? source.parallel() : source);
+      assertThat(consumed).hasValue(0);
+
+      assertThat(distinct.count()).isEqualTo(7);
+      assertThat(consumed).hasValue(10);
+      distinct.close();
+      assertThat(closed).isTrue();
+    }
+  }
+
+  @Test
+  void should_match_sequential_distinct_in_parallel() {
+    Random random = new Random(42);
+    List<String> texts = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      StringBuilder text = new StringBuilder();
+      for (int j = 0; j < 20; j++) {
+        text.appendCodePoint(random.nextInt(10) == 0 ? 0x1F300 + random.nextInt(64)
+            : 0x20 + random.nextInt(0x2000));
+      }
+      texts.add(text.toString());
+    }
+    int[] expected = texts.stream()
+        .flatMapToInt(String::codePoints)
+        .distinct()
+        .toArray();
+
+    assertThat(CodePoints.distinct(CodePoints.of(texts)).toArray()).containsExactly(expected);
+    assertThat(CodePoints.distinct(CodePoints.of(texts).parallel()).toArray())
+        .containsExactly(expected);
+    assertThat(CodePoints.distinct(CodePoints.of(texts)).parallel().toArray())
+        .containsExactly(expected);
+    assertThat(CodePoints.of(texts).parallel().count())
+        .isEqualTo(texts.stream().mapToLong(text -> text.codePoints().count()).sum());
+  }
+}
@@ -0,0 +1,81 @@
+package java8.streams;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java8.streams.DishType.BRITISH;
+import static java8.streams.DishType.GERMAN;
+import static java8.streams.DishType.MOROCCAN;
+import static java8.streams.DishType.TURKISH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class CompactDishesTest {
+
+  private CompactDishes dishes = CompactDishes.of(Arrays.asList(
+      new Dish("Dish1", 450, MOROCCAN),
+      new Dish("Dish2", 200, BRITISH),
+      new Dish("Dish3", 400, GERMAN),
+      new Dish("Dish4", 350, TURKISH),
+      new Dish("Dish5", 900, MOROCCAN)
+  ));
+
+  @Test
+  void should_read_columns() {
+    assertThat(dishes.size()).isEqualTo(5);
+    assertThat(dishes.getName(4)).isEqualTo("Dish5");
+    assertThat(dishes.getDishType(1)).isEqualTo(BRITISH);
+    assertThat(dishes.getCalories(2)).isEqualTo(400);
+  }
+
+  @Test
+  void should_create_dishes_on_demand() {
+    Dish dish = dishes.get(0);
+    assertThat(dish.getName()).isEqualTo("Dish1");
+    assertThat(dish.getCalories()).isEqualTo(450);
+    assertThat(dish.isOfType(MOROCCAN)).isTrue();
+  }
+
+  @Test
+  void should_keep_stream_api_usable() {
+    List<String> lowDishesCalories = dishes.stream()
+        .filter(Dish::isLowCalories)
+        .map(Dish::getName)
+        .collect(toList());
+    assertThat(lowDishesCalories).containsExactly("Dish2", "Dish4");
+
+    Map<DishType, List<Dish>> dishesByType = dishes.stream()
+        .collect(groupingBy(Dish::getDishType));
+    assertThat(dishesByType.get(MOROCCAN)).hasSize(2);
+  }
+
+  @Test
+  void should_sum_calories_from_primitive_column() {
+    assertThat(dishes.calories().sum()).isEqualTo(2300);
+    assertThat(dishes.calories(MOROCCAN).max()).hasValue(900);
+    assertThat(dishes.count(MOROCCAN)).isEqualTo(2);
+  }
+
+  @Test
+  void should_store_repeated_names_once() {
+    NameDictionary names = new NameDictionary();
+    CompactDishes casablanca = new CompactDishes(names, 0);
+    CompactDishes marrakesh = new CompactDishes(names, 0);
+    for (int i = 0; i < 1_000; i++) {
+      casablanca.add("Tajine", 500 + i, MOROCCAN);
+      marrakesh.add(i % 2 == 0 ? "Tajine" : "Couscous", 600, MOROCCAN);
+    }
+    assertThat(names.size()).isEqualTo(2);
+    assertThat(casablanca.getNameCode(999)).isEqualTo(marrakesh.getNameCode(0));
+    assertThat(casablanca.getName(999)).isSameAs(marrakesh.getName(0));
+  }
+
+  @Test
+  void should_reject_out_of_range_index() {
+    assertThatThrownBy(() -> dishes.get(5)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,90 @@
+package java8.streams;
+
+import static java.util.stream.Collectors.toList;
+import static java8.streams.DishType.BRITISH;
+import static java8.streams.DishType.GERMAN;
+import static java8.streams.DishType.MOROCCAN;
+import static java8.streams.DishType.TURKISH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class DishCatalogTest {
+
+  private Dish moroccan1 = new Dish("Dish1", 450, MOROCCAN);
+  private Dish british = new Dish("Dish2", 200, BRITISH);
+  private Dish german = new Dish("Dish3", 400, GERMAN);
+  private Dish turkish = new Dish("Dish4", 350, TURKISH);
+  private Dish moroccan2 = new Dish("Dish5", 900, MOROCCAN);
+  private Collection<Dish> dishes = Arrays.asList(
+      moroccan1,
+      british,
+      german,
+      turkish,
+      moroccan2
+  );
+  private DishCatalog catalog = new DishCatalog(dishes);
+
+  @Test
+  void should_get_names_of_dishes_with_low_calories() {
+    List<String> lowDishesCalories = catalog.lowCalories().stream()
+        .map(Dish::getName)
+        .collect(toList());
+    assertThat(lowDishesCalories).containsExactly("Dish2", "Dish4");
+  }
+
+  @Test
+  void should_count_dishes_by_type() {
+    assertThat(catalog.ofType(MOROCCAN).count()).isEqualTo(2);
+    assertThat(catalog.ofType(GERMAN).count()).isEqualTo(1);
+    assertThat(catalog.all().count()).isEqualTo(5);
+  }
+
+  @Test
+  void should_combine_filters() {
+    assertThat(catalog.lowCalories().and(catalog.ofType(MOROCCAN)).anyMatch()).isFalse();
+    assertThat(catalog.lowCalories().or(catalog.ofType(MOROCCAN)).stream().collect(toList()))
+        .containsExactly(moroccan1, british, turkish, moroccan2);
+    assertThat(catalog.ofType(MOROCCAN).andNot(catalog.lowCalories()).count()).isEqualTo(2);
+  }
+
+  @Test
+  void should_check_if_any_moroccan_dish() {
+    assertThat(catalog.ofType(MOROCCAN).anyMatch()).isTrue();
+    assertThat(catalog.ofType(MOROCCAN).findAny()).hasValue(moroccan1);
+  }
+
+  @Test
+  void should_check_that_all_dishes_are_healthy() {
+    assertThat(catalog.healthy().negate().anyMatch()).isFalse();
+    catalog.add(new Dish("Dish6", 1200, GERMAN));
+    assertThat(catalog.healthy().negate().findFirst()).map(Dish::getName).hasValue("Dish6");
+  }
+
+  @Test
+  void should_not_negate_into_dishes_added_after_select() {
+    DishCatalog.Selection healthy = catalog.healthy();
+    catalog.add(new Dish("Dish6", 300, GERMAN));
+    assertThat(healthy.negate().count()).isZero();
+    assertThat(healthy.negate().negate().count()).isEqualTo(5);
+    assertThat(catalog.healthy().negate().count()).isZero();
+  }
+
+  @Test
+  void should_match_stream_filters_on_large_catalogs() {
+    List<Dish> many = IntStream.range(0, 10_000)
+        .mapToObj(i -> new Dish("Dish" + i, (i * 37) % 1_000, DishType.values()[i % 4]))
+        .collect(toList());
+    DishCatalog catalog = new DishCatalog(many);
+
+    long expected = many.stream()
+        .filter(Dish::isLowCalories)
+        .filter(dish -> dish.isOfType(TURKISH))
+        .count();
+    assertThat(catalog.lowCalories().and(catalog.ofType(TURKISH)).count()).isEqualTo(expected);
+  }
+}
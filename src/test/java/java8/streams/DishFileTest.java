@@ -0,0 +1,166 @@
+package java8.streams;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingInt;
+import static java8.streams.DishType.BRITISH;
+import static java8.streams.DishType.GERMAN;
+import static java8.streams.DishType.MOROCCAN;
+import static java8.streams.DishType.TURKISH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DishFileTest {
+
+  private Path path;
+  private List<Dish> dishes;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    path = Files.createTempFile("dishes", ".bin");
+    dishes = Arrays.asList(
+        new Dish("Tajine", 450, MOROCCAN),
+        new Dish("Fish and chips", 200, BRITISH),
+        new Dish("Bratwurst", 400, GERMAN),
+        new Dish("K\u00f6fte", 350, TURKISH),
+        new Dish("Tajine", 900, MOROCCAN)
+    );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Test
+  void should_store_each_name_once() throws IOException {
+    DishFile.write(path, dishes);
+    DishFile file = DishFile.open(path);
+
+    assertThat(file.nameCount()).isEqualTo(4);
+    assertThat(file.getNameCode(4)).isEqualTo(file.getNameCode(0));
+    assertThat(file.getName(4)).isSameAs(file.getName(0));
+  }
+
+  @Test
+  void should_read_back_written_dishes() throws IOException {
+    DishFile.write(path, dishes);
+    DishFile file = DishFile.open(path).verify();
+
+    assertThat(file.size()).isEqualTo(5);
+    assertThat(file.getName(3)).isEqualTo("K\u00f6fte");
+    assertThat(file.getDishType(1)).isEqualTo(BRITISH);
+    assertThat(file.getCalories(4)).isEqualTo(900);
+    assertThat(file.calories().sum()).isEqualTo(2300);
+    assertThat(file.stream().filter(Dish::isLowCalories).map(Dish::getName))
+        .containsExactly("Fish and chips", "K\u00f6fte");
+  }
+
+  @Test
+  void should_round_trip_a_large_menu() throws IOException {
+    Random random = new Random(42);
+    DishType[] dishTypes = DishType.values();
+    List<Dish> menu = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      menu.add(new Dish("Dish" + random.nextInt(500), random.nextInt(1_500),
+          dishTypes[random.nextInt(dishTypes.length)]));
+    }
+    DishFile.write(path, menu);
+    DishFile file = DishFile.open(path);
+
+    assertThat(file.size()).isEqualTo(menu.size());
+    for (int i = 0; i < menu.size(); i += 997) {
+      assertThat(file.getName(i)).isEqualTo(menu.get(i).getName());
+      assertThat(file.getCalories(i)).isEqualTo(menu.get(i).getCalories());
+      assertThat(file.getDishType(i)).isEqualTo(menu.get(i).getDishType());
+    }
+    Map<DishType, Integer> expected =
+        menu.stream().collect(groupingBy(Dish::getDishType, summingInt(Dish::getCalories)));
+    assertThat(file.stream().parallel()
+        .collect(groupingBy(Dish::getDishType, summingInt(Dish::getCalories))))
+        .isEqualTo(expected);
+    assertThat(file.toCompactDishes().calories().sum())
+        .isEqualTo(menu.stream().mapToInt(Dish::getCalories).sum());
+  }
+
+  @Test
+  void should_reject_corrupted_file() throws IOException {
+    DishFile.write(path, dishes);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {42}), DishFile.HEADER_BYTES + 30);
+    }
+    DishFile file = DishFile.open(path);
+    assertThatThrownBy(file::verify)
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("checksum");
+  }
+
+  @Test
+  void should_report_corrupt_values_when_read() throws IOException {
+    DishFile.write(path, dishes);
+    int dishTypes = DishFile.HEADER_BYTES + 4 * (DishFile.open(path).nameCount() + 1)
+        + 8 * dishes.size();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {42}), dishTypes);
+      channel.write(ByteBuffer.wrap(new byte[] {-1, -1, -1, 127}),
+          DishFile.HEADER_BYTES + 4 * (DishFile.open(path).nameCount() + 1));
+    }
+    DishFile file = DishFile.open(path);
+    assertThatThrownBy(() -> file.getDishType(0))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Corrupt dish file, unknown dish type ordinal 42 for dish 0");
+    assertThatThrownBy(() -> file.getName(0))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("unknown name code");
+    assertThat(file.getCalories(1)).isEqualTo(dishes.get(1).getCalories());
+  }
+
+  @Test
+  void should_reject_truncated_file() throws IOException {
+    DishFile.write(path, dishes);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.truncate(Files.size(path) - 1);
+    }
+    assertThatThrownBy(() -> DishFile.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Truncated");
+  }
+
+  @Test
+  void should_reject_header_counts_beyond_the_file() throws IOException {
+    for (int[] counts : new int[][] {{0, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 0}, {-1, 0}}) {
+      DishFile.write(path, dishes);
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(counts[0]).putInt(counts[1]).flip();
+        channel.write(header, 8);
+      }
+      assertThatThrownBy(() -> DishFile.open(path))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("Truncated");
+    }
+  }
+
+  @Test
+  void should_reject_other_files() throws IOException {
+    Files.write(path, new byte[DishFile.HEADER_BYTES]);
+    assertThatThrownBy(() -> DishFile.open(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Not a dish file");
+  }
+}
@@ -207,24 +207,10 @@ public class DishTest {
 
   @Test
   void should_generate_fibonacci_series() {
-    Supplier<Integer[]> fibonacci = new Supplier<Integer[]>() {
-
-      private int left = 0;
-      private int right = 1;
-
-      private boolean isFirstElement() {
-        return left == 0 && right == 0;
-      }
-
-      @Override
-      public Integer[] get() {
-        if (isFirstElement()) {
-          return new Integer[] {0, 1};
-        }
-        Integer[] generatedTuple = {right, (left + right)};
-        this.left = right;
-        return generatedTuple;
-      }
-    };
+    List<Long> fibonacci = LongSequence.fibonacci().stream()
+        .limit(10)
+        .boxed()
+        .collect(toList());
+    assertThat(fibonacci).containsExactly(0L, 1L, 1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L);
   }
 }
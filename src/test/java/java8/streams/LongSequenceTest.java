@@ -0,0 +1,89 @@
+package java8.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class LongSequenceTest {
+
+  @Test
+  void should_compute_fibonacci_terms_directly() {
+    LongSequence fibonacci = LongSequence.fibonacci();
+    assertThat(fibonacci.get(0)).isEqualTo(0);
+    assertThat(fibonacci.get(1)).isEqualTo(1);
+    assertThat(fibonacci.get(50)).isEqualTo(12_586_269_025L);
+    assertThat(fibonacci.get(92)).isEqualTo(7_540_113_804_746_346_429L);
+    assertThatThrownBy(() -> fibonacci.get(93)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void should_iterate_fibonacci_from_any_index() {
+    LongSequence fibonacci = LongSequence.fibonacci();
+    long[] iterated = fibonacci.stream().toArray();
+    assertThat(iterated).hasSize(93);
+    for (int i = 2; i < iterated.length; i++) {
+      assertThat(iterated[i]).isEqualTo(iterated[i - 1] + iterated[i - 2]);
+    }
+    assertThat(fibonacci.stream(90, 93).toArray())
+        .containsExactly(iterated[90], iterated[91], iterated[92]);
+  }
+
+  @Test
+  void should_generate_progressions() {
+    assertThat(LongSequence.arithmetic(0, 2).stream().limit(5).toArray())
+        .containsExactly(0, 2, 4, 6, 8);
+    assertThat(LongSequence.arithmetic(7, -3).get(1_000_000_000L)).isEqualTo(-2_999_999_993L);
+    assertThat(LongSequence.geometric(3, 2).stream(0, 4).toArray()).containsExactly(3, 6, 12, 24);
+    assertThat(LongSequence.geometric(1, 2).get(62)).isEqualTo(1L << 62);
+  }
+
+  @Test
+  void should_fail_on_overflow() {
+    assertThatThrownBy(() -> LongSequence.geometric(1, 2).get(63))
+        .isInstanceOf(ArithmeticException.class);
+    PrimitiveIterator.OfLong iterator = LongSequence.geometric(1L << 62, 2).iterator();
+    assertThat(iterator.nextLong()).isEqualTo(1L << 62);
+    assertThatThrownBy(iterator::nextLong).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void should_slice_without_generating_the_prefix() {
+    LongSequence powersOfTwo = LongSequence.geometric(1, 2);
+    assertThat(powersOfTwo.stream(60, 63).toArray())
+        .containsExactly(1L << 60, 1L << 61, 1L << 62);
+  }
+
+  @Test
+  void should_split_bounded_ranges_evenly() {
+    Spliterator.OfLong spliterator = LongSequence.arithmetic(0, 1).spliterator(0, 1_000_000);
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assertThat(prefix.estimateSize()).isEqualTo(500_000);
+    assertThat(spliterator.estimateSize()).isEqualTo(500_000);
+    assertThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+
+    long parallelSum = LongSequence.arithmetic(0, 1).stream(0, 1_000_000).parallel().sum();
+    assertThat(parallelSum).isEqualTo(LongStream.range(0, 1_000_000).sum());
+  }
+
+  @Test
+  void should_not_split_endless_streams() {
+    Spliterator.OfLong spliterator =
+        LongSequence.arithmetic(0, 1).spliterator(0, LongSequence.UNBOUNDED);
+    assertThat(spliterator.trySplit()).isNull();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED)).isFalse();
+  }
+
+  @Test
+  void should_serve_memoized_terms_from_the_table() {
+    LongSequence fibonacci = LongSequence.fibonacci().memoize(50);
+    assertThat(fibonacci.get(49)).isEqualTo(LongSequence.fibonacci().get(49));
+    assertThat(fibonacci.get(80)).isEqualTo(LongSequence.fibonacci().get(80));
+    assertThat(fibonacci.stream(48, 52).toArray())
+        .containsExactly(LongSequence.fibonacci().stream(48, 52).toArray());
+    assertThat(fibonacci.stream().count()).isEqualTo(93);
+  }
+}